@@ -0,0 +1,105 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP benchmark for one running instance: N workers hammer one
+ * endpoint for a fixed time, then throughput and latency percentiles are printed.
+ * Run with the JDK source launcher (no build needed):
+ *
+ *   java bench/ThreadModeBenchmark.java http://localhost:8080 TOKEN FROM TO transfer 200 30
+ *   java bench/ThreadModeBenchmark.java http://localhost:8080 TOKEN FROM TO history  200 30
+ *
+ * run-thread-modes.sh boots the app in platform and virtual mode and runs both.
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("usage: baseUrl token fromAccount toAccount transfer|history workers seconds");
+            System.exit(2);
+        }
+        String base = args[0], token = args[1], from = args[2], to = args[3], scenario = args[4];
+        int workers = Integer.parseInt(args[5]);
+        long seconds = Long.parseLong(args[6]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        long[][] samples = new long[workers][];
+        int[] counts = new int[workers];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        for (int w = 0; w < workers; w++) {
+            final int id = w;
+            pool.submit(() -> {
+                long[] lat = new long[1 << 16];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest req = request(base, token, from, to, scenario);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resp = client.send(req, HttpResponse.BodyHandlers.discarding());
+                        if (resp.statusCode() >= 300) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (n == lat.length) lat = Arrays.copyOf(lat, n * 2);
+                    lat[n++] = System.nanoTime() - start;
+                }
+                samples[id] = lat;
+                counts[id] = n;
+                return null;
+            });
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(seconds + 60, TimeUnit.SECONDS)) {
+            System.err.println("workers did not finish");
+            System.exit(1);
+        }
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int pos = 0;
+        for (int w = 0; w < workers; w++) {
+            System.arraycopy(samples[w], 0, all, pos, counts[w]);
+            pos += counts[w];
+        }
+        Arrays.sort(all);
+        System.out.printf("%s workers=%d requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                scenario, workers, total, errors.get(), total / (double) seconds,
+                pct(all, 0.50), pct(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        System.exit(0);
+    }
+
+    private static HttpRequest request(String base, String token, String from, String to, String scenario) {
+        HttpRequest.Builder b = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+        if ("history".equals(scenario)) {
+            return b.uri(URI.create(base + "/api/v1/transfers/history/" + from + "/page?size=20")).GET().build();
+        }
+        String body = "{\"fromAccountId\":\"" + from + "\",\"toAccountId\":\"" + to
+                + "\",\"amount\":0.01,\"idempotencyKey\":\"" + UUID.randomUUID() + "\"}";
+        return b.uri(URI.create(base + "/api/v1/transfers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,38 @@
+#!/bin/bash
+# Compare platform vs virtual threads for transfer and history endpoints.
+# Needs JDK 21+ (JAVA_HOME) and runs against a throwaway file-based H2 database.
+# usage: bench/run-thread-modes.sh [workers] [seconds]
+set -e
+cd "$(dirname "$0")/.."
+WORKERS=${1:-200}
+SECONDS_PER_RUN=${2:-30}
+PORT=18090
+DB=/tmp/mts-bench-db
+
+sh ./mvnw -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v -e original -e classes | head -1)
+H2=$(find ~/.m2/repository/com/h2database/h2 -name 'h2-*.jar' | sort | tail -1)
+
+for MODE in platform virtual; do
+  rm -rf $DB
+  PROFILE=""; [ $MODE = virtual ] && PROFILE="--spring.profiles.active=virtual"
+  java -jar $JAR --server.port=$PORT $PROFILE \
+    "--spring.datasource.url=jdbc:h2:$DB/mts;MODE=MySQL;AUTO_SERVER=TRUE" \
+    --spring.datasource.username=sa --spring.datasource.password= \
+    --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect > /tmp/mts-bench-$MODE.log 2>&1 &
+  APP=$!
+  until curl -s -o /dev/null localhost:$PORT/api/v1/auth/login; do sleep 1; done
+
+  reg() { curl -s -X POST "localhost:$PORT/api/v1/auth/register?username=$1&password=Bench123!&holderName=Bench$1"; }
+  RA=$(reg bencha); RB=$(reg benchb)
+  TOKEN=$(echo "$RA" | sed 's/.*"token":"\([^"]*\)".*/\1/')
+  A=$(echo "$RA" | sed 's/.*"id":"\([^"]*\)".*/\1/')
+  B=$(echo "$RB" | sed 's/.*"id":"\([^"]*\)".*/\1/')
+  java -cp "$H2" org.h2.tools.Shell -url "jdbc:h2:$DB/mts;AUTO_SERVER=TRUE" -user sa \
+    -sql "UPDATE accounts SET balance_minor = 100000000000 WHERE id = '$A'" > /dev/null
+
+  echo "== $MODE threads"
+  java bench/ThreadModeBenchmark.java http://localhost:$PORT "$TOKEN" "$A" "$B" transfer $WORKERS $SECONDS_PER_RUN
+  java bench/ThreadModeBenchmark.java http://localhost:$PORT "$TOKEN" "$A" "$B" history $WORKERS $SECONDS_PER_RUN
+  kill $APP; wait $APP 2>/dev/null || true
+done
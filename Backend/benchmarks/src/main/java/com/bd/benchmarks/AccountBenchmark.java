@@ -0,0 +1,60 @@
+package com.bd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bd.dto.AccountDTO;
+import com.bd.model.Account;
+import com.bd.model.Money;
+
+/** Domain hot path: balance rules on the entity and entity/DTO mapping. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+    private final Money amount = Money.ofMinor(1_250);
+    private Account account;
+    private AccountDTO dto;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId("MTS2026-000000011");
+        account.setHolderName("Benchmark Holder");
+        account.setBalance(Money.ofMinor(1_000_000_000L));
+        account.setStatus("ACTIVE");
+        dto = AccountDTO.toDTO(account);
+    }
+
+    // debit and credit together, so the balance never drifts towards a limit
+    @Benchmark
+    public Account debitThenCredit() {
+        account.debit(amount);
+        account.credit(amount);
+        return account;
+    }
+
+    @Benchmark
+    public AccountDTO toDTO() {
+        return AccountDTO.toDTO(account);
+    }
+
+    @Benchmark
+    public Account fromDTO() {
+        return AccountDTO.fromDTO(dto);
+    }
+}
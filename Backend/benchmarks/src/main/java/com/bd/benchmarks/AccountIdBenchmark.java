@@ -0,0 +1,55 @@
+package com.bd.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bd.service.AccountIdGenerator;
+
+/**
+ * Account id allocation. With block size 1 every id is a transaction on the
+ * id_sequences row; with 100 that cost is paid once per hundred ids.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountIdBenchmark {
+
+    @Param({"1", "100"})
+    public int blockSize;
+
+    private ConfigurableApplicationContext context;
+    private AccountIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of("account.id.block-size", String.valueOf(blockSize)));
+        generator = context.getBean(AccountIdGenerator.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String nextId() {
+        return generator.nextId();
+    }
+}
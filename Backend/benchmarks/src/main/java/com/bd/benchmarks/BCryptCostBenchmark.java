@@ -0,0 +1,53 @@
+package com.bd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bd.security.CostAwareBCryptPasswordEncoder;
+
+/**
+ * Login cost per BCrypt work factor (security.bcrypt.strength). Each step of the
+ * cost doubles the time; pick the highest cost whose {@code matches} time still
+ * fits the login latency budget times security.login.threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptCostBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int cost;
+
+    private CostAwareBCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new CostAwareBCryptPasswordEncoder(cost);
+        hash = encoder.encode("Passw0rd!");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("Passw0rd!", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Passw0rd!");
+    }
+}
@@ -0,0 +1,41 @@
+package com.bd.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bd.MoneyTransferSystemApplication;
+
+/** Starts the full application against a private in-memory H2 database. */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        // devtools is on the app's classpath: its restarter would re-run the app in a
+        // fresh class loader and leave the benchmark measuring a different context.
+        // It only reads this switch as a system property, not from the arguments.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", "0");
+        props.put("management.server.port", "0");
+        props.put("spring.datasource.url",
+                "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("spring.jpa.hibernate.ddl-auto", "create");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        props.put("spring.devtools.livereload.enabled", "false");
+        props.putAll(overrides);
+        // as command-line arguments: they must win over application.properties
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MoneyTransferSystemApplication.class).run(args);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bd.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.bd.exception.GlobalExceptionHandler;
+import com.bd.model.Money;
+
+/**
+ * Cost of a rejected request at the generic error edge ({@code IllegalArgumentException}
+ * → 400): building the error body alone, and together with constructing the exception
+ * (message formatting + stack trace). Business-rule rejections: see {@link RejectionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final Money balance = Money.ofMinor(1_000);
+    private final Money amount = Money.ofMinor(5_000);
+    private final IllegalArgumentException prebuilt = rejection(balance, amount);
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> buildResponse() {
+        return handler.handleBusinessExceptions(prebuilt);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> throwAndBuildResponse() {
+        try {
+            throw rejection(balance, amount);
+        } catch (IllegalArgumentException e) {
+            return handler.handleBusinessExceptions(e);
+        }
+    }
+
+    private static IllegalArgumentException rejection(Money balance, Money amount) {
+        return new IllegalArgumentException("Insufficient balance. Available: " + balance + ", Requested: " + amount);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bd.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bd.model.id.TimeOrderedIds;
+
+/**
+ * Log-row inserts with database IDENTITY keys versus ids allocated in memory
+ * ({@link TimeOrderedIds}). IDENTITY forces one statement and one generated-key
+ * read per row (Hibernate cannot batch them); allocated ids allow one JDBC batch.
+ * Runs against an in-memory H2 database, so it measures round trips and
+ * statement overhead rather than disk I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdAllocationBenchmark {
+
+    private static final int ROWS = 100;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:ids-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE log_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount_minor BIGINT)");
+            st.execute("CREATE TABLE log_allocated (id BIGINT PRIMARY KEY, amount_minor BIGINT)");
+        }
+    }
+
+    // keep table size (and index depth) comparable across iterations
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("TRUNCATE TABLE log_identity");
+            st.execute("TRUNCATE TABLE log_allocated");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long nextTimeOrderedId() {
+        return TimeOrderedIds.next();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityInserts() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO log_identity (amount_minor) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, i);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] allocatedBatchInsert() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO log_allocated (id, amount_minor) VALUES (?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, TimeOrderedIds.next());
+                ps.setLong(2, i);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        }
+    }
+}
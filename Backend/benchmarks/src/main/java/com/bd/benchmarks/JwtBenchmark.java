@@ -0,0 +1,67 @@
+package com.bd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bd.security.JwtUtil;
+import com.bd.security.VerifiedToken;
+
+/**
+ * Token issue and verification. {@code verifyCached} is the steady state for a
+ * polling client; {@code verifyUncached} runs the full parse + HMAC check every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    private static final long ONE_HOUR_MS = 3_600_000L;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+    // distinct tokens, cycled so the zero-size cache never still holds the next one
+    private final String[] ring = new String[4096];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtUtil(SECRET, ONE_HOUR_MS, 10_000);
+        // a zero-size cache evicts entries as soon as its maintenance runs
+        uncached = new JwtUtil(SECRET, ONE_HOUR_MS, 0);
+        token = cached.generateToken("bench-user", "USER");
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = cached.generateToken("bench-user-" + i, "USER");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("bench-user", "USER");
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        next = (next + 1) & (ring.length - 1);
+        return uncached.verify(ring[next]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.bd.benchmarks;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.Account;
+import com.bd.model.TransactionLog;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+
+/**
+ * The transfer path as it was before accounts were locked by one ordered
+ * {@code SELECT ... FOR UPDATE}: two {@code existsById} checks, a log lookup by
+ * idempotency key, then each account read on its own in request order, saved
+ * explicitly and guarded only by its {@code @Version} at commit. A conflict is
+ * not retried; it fails the transfer. Kept here only as the "before" case of
+ * {@link TransferBenchmark}.
+ */
+final class PerRowLockingTransfer {
+
+    private final AccountRepository accountRepo;
+    private final TransactionLogRepository logRepo;
+    private final ActivitySummaryService summaryService;
+    private final TransactionTemplate tx;
+
+    PerRowLockingTransfer(ApplicationContext context) {
+        this.accountRepo = context.getBean(AccountRepository.class);
+        this.logRepo = context.getBean(TransactionLogRepository.class);
+        this.summaryService = context.getBean(ActivitySummaryService.class);
+        this.tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    TransferResponseDTO transfer(TransferRequestDTO request) {
+        try {
+            return tx.execute(s -> {
+                if (!accountRepo.existsById(request.getFromAccountId())
+                        || !accountRepo.existsById(request.getToAccountId())) {
+                    return new TransferResponseDTO(null, "FAILED", "Account not found");
+                }
+                if (logRepo.findByIdempotencyKey(request.getIdempotencyKey()).isPresent()) {
+                    return new TransferResponseDTO(null, "FAILED", "Duplicate transfer request");
+                }
+                Account from = accountRepo.findById(request.getFromAccountId()).orElseThrow();
+                Account to = accountRepo.findById(request.getToAccountId()).orElseThrow();
+                from.debit(request.getAmount());
+                to.credit(request.getAmount());
+                accountRepo.save(from);
+                accountRepo.save(to);
+
+                TransactionLog log = new TransactionLog();
+                log.setFromAccountId(request.getFromAccountId());
+                log.setToAccountId(request.getToAccountId());
+                log.setAmount(request.getAmount());
+                log.setIdempotencyKey(request.getIdempotencyKey());
+                log.setStatus("SUCCESS");
+                summaryService.record(log);
+                logRepo.save(log);
+                return new TransferResponseDTO(log.getId(), "SUCCESS", "Transfer completed successfully");
+            });
+        } catch (RuntimeException e) {
+            // a version conflict at commit: the old path had no retry
+            return new TransferResponseDTO(null, "FAILED", e.getMessage());
+        }
+    }
+}
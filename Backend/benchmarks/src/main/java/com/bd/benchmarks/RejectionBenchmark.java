@@ -0,0 +1,112 @@
+package com.bd.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.bd.exception.BusinessRuleException;
+import com.bd.exception.GlobalExceptionHandler;
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.model.Rejection;
+
+/**
+ * Throughput of a debit that is rejected for insufficient balance, from the rule
+ * check to the 400 body, three ways:
+ * <ul>
+ *   <li>{@code thrownWithStackTrace}: a fresh exception with a formatted message and a
+ *       full stack trace, and a fresh body map with a timestamp (the old path)</li>
+ *   <li>{@code thrownStackless}: {@code Account.debit} throwing the shared, stackless
+ *       {@link BusinessRuleException}, answered with its precomputed body</li>
+ *   <li>{@code resultTyped}: {@code Account.tryDebit} returning the {@link Rejection},
+ *       as the transfer paths now do</li>
+ * </ul>
+ * {@code stackDepth} is the number of frames above the check: capturing a stack trace
+ * costs more the deeper the call, which in a servlet container is well over 100.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RejectionBenchmark {
+
+    @Param({"10", "150"})
+    public int stackDepth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final Money amount = Money.ofMinor(5_000);
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId("MTS-BENCH");
+        account.setHolderName("Benchmark Holder");
+        account.setStatus("ACTIVE");
+        account.setBalance(Money.ofMinor(1_000));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> thrownWithStackTrace() {
+        try {
+            atDepth(stackDepth, Path.LEGACY);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return handler.handleBusinessExceptions(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> thrownStackless() {
+        try {
+            atDepth(stackDepth, Path.STACKLESS);
+            return null;
+        } catch (BusinessRuleException e) {
+            return handler.handleRejection(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> resultTyped() {
+        Rejection rejection = atDepth(stackDepth, Path.RESULT);
+        return rejection == null ? null : handler.handleRejection(BusinessRuleException.of(rejection));
+    }
+
+    private enum Path { LEGACY, STACKLESS, RESULT }
+
+    private Rejection atDepth(int depth, Path path) {
+        if (depth > 0) {
+            return atDepth(depth - 1, path);
+        }
+        switch (path) {
+            case LEGACY -> {
+                if (account.checkDebit(amount) == Rejection.INSUFFICIENT_BALANCE) {
+                    throw new IllegalArgumentException("Insufficient balance. Available: "
+                            + account.getBalance() + ", Requested: " + amount);
+                }
+                return null;
+            }
+            case STACKLESS -> {
+                account.debit(amount);
+                return null;
+            }
+            default -> {
+                return account.tryDebit(amount);
+            }
+        }
+    }
+}
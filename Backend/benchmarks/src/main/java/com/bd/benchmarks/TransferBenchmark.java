@@ -0,0 +1,126 @@
+package com.bd.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bd.dto.AccountDTO;
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.Money;
+import com.bd.service.IAccountService;
+import com.bd.service.ITransferService;
+
+/**
+ * {@code TransferService.transfer} end to end (idempotency lookup, row locks,
+ * balance update, log insert, commit) against embedded H2, from 4 threads.
+ *
+ * {@code accounts} sets the contention: with 2 every transfer fights over the
+ * same pair of rows (hot-pair case: lock waits and retries dominate); with 1000
+ * transfers rarely collide. {@code engine} compares the JPA path with the
+ * in-memory ledger, and with {@code jpa-per-row}: the JPA path as it was before
+ * the single ordered {@code FOR UPDATE} and lock-conflict retries
+ * ({@link PerRowLockingTransfer}), i.e. the "before" of the hot-pair case.
+ *
+ * Throughput counts every call; the {@code succeeded} and {@code failed}
+ * secondary results split it, since the old path answers a conflict with FAILED.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    @Param({"2", "1000"})
+    public int accounts;
+
+    @Param({"jpa-per-row", "jpa", "ledger"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private ITransferService transfers;
+    private PerRowLockingTransfer perRow;
+    private List<String> ids;
+
+    /** Per-thread outcome counts, reported by JMH next to the throughput. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        boolean before = "jpa-per-row".equals(engine);
+        context = BenchmarkApplication.start(Map.of("transfer.engine", before ? "jpa" : engine));
+        transfers = context.getBean(ITransferService.class);
+        perRow = before ? new PerRowLockingTransfer(context) : null;
+
+        IAccountService accountService = context.getBean(IAccountService.class);
+        ids = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            AccountDTO dto = new AccountDTO();
+            dto.setHolderName("Benchmark Holder " + i);
+            dto.setStatus("ACTIVE");
+            ids.add(accountService.createAccount(dto).getId());
+        }
+        // balances cannot be set through the account API
+        context.getBean(JdbcTemplate.class).update("UPDATE accounts SET balance_minor = ?", 1_000_000_000L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResponseDTO transfer(Outcomes outcomes) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(accounts);
+        int to = (from + 1 + rnd.nextInt(accounts - 1)) % accounts;
+
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setFromAccountId(ids.get(from));
+        request.setToAccountId(ids.get(to));
+        request.setAmount(Money.ofMinor(1 + rnd.nextInt(100)));
+        request.setIdempotencyKey(UUID.randomUUID().toString());
+        TransferResponseDTO response = perRow != null ? perRow.transfer(request) : transfers.transfer(request);
+        if ("SUCCESS".equals(response.getStatus())) {
+            outcomes.succeeded++;
+        } else {
+            outcomes.failed++;
+        }
+        return response;
+    }
+}
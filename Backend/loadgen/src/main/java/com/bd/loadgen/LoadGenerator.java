@@ -0,0 +1,337 @@
+package com.bd.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bd.MoneyTransferSystemApplication;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Open-loop load generator. Boots the application on an in-memory H2 database,
+ * registers {@code --accounts} users, funds their accounts, then sends requests at
+ * a fixed {@code --rate} regardless of how fast responses come back. Latency is
+ * measured from each request's scheduled send time, so queueing inside the
+ * application (or in this client, when it falls behind) shows up in the numbers
+ * instead of silently lowering the offered load.
+ *
+ * Accounts are picked with a Zipf distribution ({@code --zipf}), so a few hot
+ * accounts see most of the traffic, as real payment traffic tends to.
+ *
+ * <pre>
+ *   cd Backend &amp;&amp; ./mvnw install -DskipTests
+ *   cd loadgen &amp;&amp; ../mvnw package exec:exec -Dloadgen.args="--rate=500 --zipf=1.2 --transfer.engine=ledger"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final String PASSWORD = "Passw0rd!";
+    private static final long FUNDS_MINOR = 1_000_000_000_000L;
+    private static final long HIGHEST_LATENCY_US = Duration.ofMinutes(2).toNanos() / 1000;
+
+    enum Op { TRANSFER, HISTORY, BALANCE }
+
+    private final LoadOptions options;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final Map<Op, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<Op, Histogram> totals = new LinkedHashMap<>();
+    private final Map<Op, AtomicLong> errors = new LinkedHashMap<>();
+    private final AtomicLong failedTransfers = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private String baseUrl;
+    private final List<String> accountIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private volatile long measureStartNanos;
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        for (Op op : Op.values()) {
+            recorders.put(op, new Recorder(HIGHEST_LATENCY_US, 3));
+            totals.put(op, new Histogram(HIGHEST_LATENCY_US, 3));
+            errors.put(op, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        try (ConfigurableApplicationContext app = boot(options)) {
+            LoadGenerator generator = new LoadGenerator(options);
+            generator.baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            generator.createAccounts(app.getBean(JdbcTemplate.class));
+            generator.run();
+            generator.report(System.out);
+            generator.writeResults();
+            generator.writeServerMetrics(app.getEnvironment().getProperty("local.management.port"));
+        }
+        System.exit(0);
+    }
+
+    // ---------------- setup ----------------
+
+    private static ConfigurableApplicationContext boot(LoadOptions options) {
+        // devtools would restart the app by calling our main() again with Spring's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("server.port", "0");
+        props.put("management.server.port", "0");
+        props.put("spring.datasource.url",
+                "jdbc:h2:mem:loadgen;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("spring.jpa.hibernate.ddl-auto", "create");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        // registration is setup, not workload: keep BCrypt cheap unless asked otherwise
+        props.put("security.bcrypt.strength", "4");
+        for (String arg : options.appArgs()) {
+            int eq = arg.indexOf('=');
+            props.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MoneyTransferSystemApplication.class).run(args);
+    }
+
+    /** Registers every account through AuthService (the register endpoint) and funds it. */
+    private void createAccounts(JdbcTemplate jdbc) throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < options.accounts(); i++) {
+            String query = "username=" + enc("lg" + run + "u" + i)
+                    + "&password=" + enc(PASSWORD)
+                    + "&holderName=" + enc("Load Holder " + i);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/register?" + query))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 429) {
+                // login/register load shedding: back off and retry this account
+                Thread.sleep(50);
+                i--;
+                continue;
+            }
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Registration failed: " + response.statusCode() + " " + response.body());
+            }
+            JsonNode body = json.readTree(response.body());
+            tokens.add(body.get("token").asText());
+            accountIds.add(body.get("user").get("id").asText());
+        }
+        // deposits are not part of the API
+        jdbc.update("UPDATE accounts SET balance_minor = ?", FUNDS_MINOR);
+        System.out.printf("Registered and funded %d accounts%n", accountIds.size());
+    }
+
+    // ---------------- load ----------------
+
+    private void run() {
+        ZipfSampler accounts = new ZipfSampler(options.accounts(), options.zipf());
+        System.out.printf(Locale.ROOT, "Open loop: %d req/s, zipf %.2f (top 10%% of accounts get %.0f%% of picks), "
+                        + "%.0f%% transfers%n",
+                options.rate(), options.zipf(),
+                100 * accounts.topShare(Math.max(1, options.accounts() / 10)), 100 * options.writeRatio());
+
+        long interval = 1_000_000_000L / options.rate();
+        long start = System.nanoTime();
+        measureStartNanos = start + options.warmup().toNanos();
+        long end = measureStartNanos + options.duration().toNanos();
+        long nextReport = start + 5_000_000_000L;
+
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (intended >= measureStartNanos) skipped.incrementAndGet();
+            } else {
+                send(accounts, intended);
+            }
+            if (System.nanoTime() >= nextReport) {
+                progress(start);
+                nextReport += 5_000_000_000L;
+            }
+        }
+
+        // let requests still in flight finish (they are part of the measurement)
+        long drainDeadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(10_000_000L);
+        }
+        for (Op op : Op.values()) {
+            totals.get(op).add(recorders.get(op).getIntervalHistogram());
+        }
+    }
+
+    private void send(ZipfSampler accounts, long intended) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = accounts.next();
+        Op op;
+        HttpRequest request;
+        if (rnd.nextDouble() < options.writeRatio()) {
+            op = Op.TRANSFER;
+            int to = accounts.next();
+            if (to == from) {
+                to = (from + 1 + rnd.nextInt(options.accounts() - 1)) % options.accounts();
+            }
+            String key = UUID.randomUUID().toString();
+            String body = String.format(Locale.ROOT,
+                    "{\"fromAccountId\":\"%s\",\"toAccountId\":\"%s\",\"amount\":%d.%02d,\"idempotencyKey\":\"%s\"}",
+                    accountIds.get(from), accountIds.get(to), rnd.nextInt(100), rnd.nextInt(1, 100), key);
+            request = authorized(from, "/api/v1/transfers")
+                    .header("Content-Type", "application/json")
+                    .header("Idempotency-Key", key)
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        } else if (rnd.nextDouble() < options.historyShare()) {
+            op = Op.HISTORY;
+            request = authorized(from, "/api/v1/transfers/history/" + accountIds.get(from) + "/page?size=20")
+                    .GET().build();
+        } else {
+            op = Op.BALANCE;
+            request = authorized(from, "/api/v1/accounts/" + accountIds.get(from) + "/balance")
+                    .GET().build();
+        }
+
+        boolean measured = intended >= measureStartNanos;
+        inFlight.incrementAndGet();
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            long latencyUs = Math.min((System.nanoTime() - intended) / 1000, HIGHEST_LATENCY_US);
+            recorders.get(op).recordValue(latencyUs);
+            if (error != null || response.statusCode() >= 400) {
+                errors.get(op).incrementAndGet();
+            } else if (op == Op.TRANSFER && response.body().contains("\"status\":\"FAILED\"")) {
+                failedTransfers.incrementAndGet();
+            }
+        });
+    }
+
+    private HttpRequest.Builder authorized(int account, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + tokens.get(account));
+    }
+
+    private void progress(long start) {
+        long completed = 0;
+        long p99 = 0;
+        for (Op op : Op.values()) {
+            Histogram interval = recorders.get(op).getIntervalHistogram();
+            totals.get(op).add(interval);
+            completed += interval.getTotalCount();
+            p99 = Math.max(p99, interval.getValueAtPercentile(99));
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000_000L;
+        String phase = System.nanoTime() < measureStartNanos ? "warmup " : "measure";
+        System.out.printf(Locale.ROOT, "[%4ds %s] %6.0f req/s  worst p99 %8.2f ms  in flight %d%n",
+                elapsed, phase, completed / 5.0, p99 / 1000.0, inFlight.get());
+    }
+
+    // ---------------- results ----------------
+
+    private void report(PrintStream out) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        Histogram all = new Histogram(HIGHEST_LATENCY_US, 3);
+        out.println();
+        out.printf("%-9s %9s %9s %9s %9s %9s %9s %8s%n",
+                "op", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Op op : Op.values()) {
+            Histogram h = totals.get(op);
+            all.add(h);
+            line(out, op.name().toLowerCase(Locale.ROOT), h, seconds, errors.get(op).get());
+        }
+        line(out, "all", all, seconds, errors.values().stream().mapToLong(AtomicLong::get).sum());
+        out.printf("FAILED transfers (business rejections, lock conflicts): %d%n", failedTransfers.get());
+        out.printf("skipped (over --max-in-flight): %d%n", skipped.get());
+    }
+
+    private static void line(PrintStream out, String name, Histogram h, double seconds, long errors) {
+        out.printf(Locale.ROOT, "%-9s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                name, h.getTotalCount(), h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0, errors);
+    }
+
+    /** One .hgrm percentile distribution per operation (milliseconds) and a summary.json. */
+    private void writeResults() throws IOException {
+        Files.createDirectories(options.output());
+        double seconds = options.duration().toMillis() / 1000.0;
+        StringBuilder summary = new StringBuilder("{\n");
+        summary.append(String.format(Locale.ROOT,
+                "  \"rate\": %d, \"durationSeconds\": %.1f, \"accounts\": %d, \"zipf\": %.2f, \"writeRatio\": %.2f,%n",
+                options.rate(), seconds, options.accounts(), options.zipf(), options.writeRatio()));
+        summary.append(String.format("  \"failedTransfers\": %d, \"skipped\": %d,%n", failedTransfers.get(), skipped.get()));
+        summary.append("  \"operations\": {\n");
+        int i = 0;
+        for (Op op : Op.values()) {
+            Histogram h = totals.get(op);
+            String name = op.name().toLowerCase(Locale.ROOT);
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(options.output().resolve(name + ".hgrm")))) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+            summary.append(String.format(Locale.ROOT,
+                    "    \"%s\": {\"count\": %d, \"throughput\": %.1f, \"p50Ms\": %.3f, \"p99Ms\": %.3f, "
+                            + "\"p999Ms\": %.3f, \"maxMs\": %.3f, \"errors\": %d}%s%n",
+                    name, h.getTotalCount(), h.getTotalCount() / seconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0,
+                    errors.get(op).get(), ++i < Op.values().length ? "," : ""));
+        }
+        summary.append("  }\n}\n");
+        Files.writeString(options.output().resolve("summary.json"), summary);
+        System.out.println("Histograms and summary.json written to " + options.output().toAbsolutePath());
+    }
+
+    /** The application's own view of the run (transfer phase timers, pool waits) as metrics.prom. */
+    private void writeServerMetrics(String managementPort) throws IOException, InterruptedException {
+        HttpResponse<String> res = http.send(HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + managementPort + "/actuator/prometheus")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() == 200) {
+            Files.writeString(options.output().resolve("metrics.prom"), res.body());
+        } else {
+            System.err.println("Could not scrape /actuator/prometheus: HTTP " + res.statusCode());
+        }
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
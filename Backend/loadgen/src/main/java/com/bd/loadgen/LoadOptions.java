@@ -0,0 +1,84 @@
+package com.bd.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line options, all {@code --name=value}:
+ * <pre>
+ *   --accounts=100        accounts registered through /api/v1/auth/register
+ *   --rate=200            requests per second, sent on schedule (open loop)
+ *   --duration=30s        measured phase
+ *   --warmup=5s           unmeasured phase before it
+ *   --zipf=1.0            skew towards hot accounts (0 = uniform)
+ *   --write-ratio=0.5     share of requests that are transfers
+ *   --history-share=0.5   share of the reads that are history pages (rest: balance)
+ *   --max-in-flight=5000  requests beyond this are counted as skipped, not sent
+ *   --output=dir          where .hgrm histograms and summary.json are written
+ * </pre>
+ * Any other {@code --key=value} is passed to the application, e.g.
+ * {@code --transfer.engine=ledger} or {@code --spring.profiles.active=virtual}.
+ */
+record LoadOptions(
+        int accounts,
+        int rate,
+        Duration duration,
+        Duration warmup,
+        double zipf,
+        double writeRatio,
+        double historyShare,
+        int maxInFlight,
+        Path output,
+        List<String> appArgs
+) {
+
+    static LoadOptions parse(String[] args) {
+        int accounts = 100;
+        int rate = 200;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        double zipf = 1.0;
+        double writeRatio = 0.5;
+        double historyShare = 0.5;
+        int maxInFlight = 5000;
+        Path output = Path.of("target", "loadgen");
+        List<String> appArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "accounts" -> accounts = Integer.parseInt(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "duration" -> duration = seconds(value);
+                case "warmup" -> warmup = seconds(value);
+                case "zipf" -> zipf = Double.parseDouble(value);
+                case "write-ratio" -> writeRatio = Double.parseDouble(value);
+                case "history-share" -> historyShare = Double.parseDouble(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "output" -> output = Path.of(value);
+                default -> appArgs.add(arg);
+            }
+        }
+        if (accounts < 2) {
+            throw new IllegalArgumentException("At least 2 accounts are needed");
+        }
+        if (rate < 1) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        return new LoadOptions(accounts, rate, duration, warmup, zipf, writeRatio, historyShare,
+                maxInFlight, output, List.copyOf(appArgs));
+    }
+
+    // "30s" or "30"
+    private static Duration seconds(String value) {
+        String v = value.endsWith("s") ? value.substring(0, value.length() - 1) : value;
+        return Duration.ofMillis((long) (Double.parseDouble(v) * 1000));
+    }
+}
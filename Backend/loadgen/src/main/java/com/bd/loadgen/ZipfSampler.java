@@ -0,0 +1,40 @@
+package com.bd.loadgen;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws indexes 0..n-1 with probability proportional to 1/(rank^s): index 0 is
+ * the hottest account. s = 0 is uniform; around 1 a handful of accounts get most
+ * of the traffic; larger values concentrate it further.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double s) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int i = Arrays.binarySearch(cdf, u);
+        return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+    }
+
+    /** Share of all draws that land on the hottest {@code k} indexes. */
+    double topShare(int k) {
+        return cdf[Math.min(k, cdf.length) - 1];
+    }
+}
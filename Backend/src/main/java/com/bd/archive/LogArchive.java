@@ -0,0 +1,218 @@
+package com.bd.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bd.model.ArchiveSegment;
+import com.bd.model.TransactionLog;
+import com.bd.repository.ArchiveSegmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read side of the transaction log archive. Answers per-account reads: segments
+ * outside the requested time range are skipped from the catalog, and inside a
+ * segment only the blocks listed for the account in its index are read and
+ * decompressed.
+ *
+ * Reads go through a {@link View}, taken inside the caller's transaction next to
+ * its table queries: it reads the highest archived log id there and covers exactly
+ * the segments up to it, so table and archive come from the same point in time (on
+ * the primary or on a lagging replica alike). Table rows at or below that id are
+ * in the view and are left out of the table side. The catalog itself is cached and
+ * only reloaded when the database has segments it does not know yet.
+ *
+ * Rows come back as detached {@link TransactionLog} instances, so callers can merge
+ * them with rows from the table. Segment files live on local disk: every instance
+ * serving history must see the same {@code archive.dir}.
+ */
+@Component
+public class LogArchive {
+
+    private static final Comparator<TransactionLog> OLDEST_FIRST =
+            Comparator.comparing(TransactionLog::getCreatedOn).thenComparing(TransactionLog::getId);
+
+    private final ArchiveSegmentRepository segmentRepo;
+    private final Path dir;
+    private final Cache<Long, SegmentIndex> indexes;
+
+    // cached catalog, ordered by id range, i.e. oldest first
+    private volatile List<ArchiveSegment> segments = List.of();
+
+    public LogArchive(ArchiveSegmentRepository segmentRepo,
+                      @Value("${archive.dir:./data/archive}") String dir,
+                      @Value("${archive.index-cache-size:64}") long indexCacheSize) {
+        this.segmentRepo = segmentRepo;
+        this.dir = Path.of(dir);
+        this.indexes = Caffeine.newBuilder().maximumSize(indexCacheSize).build();
+    }
+
+    Path directory() {
+        return dir;
+    }
+
+    /**
+     * The archive as seen by the current transaction. Take it in the same
+     * transaction as the table queries it is combined with.
+     */
+    public View view() {
+        Long last = segmentRepo.findLastArchivedLogId();
+        if (last == null) {
+            return new View(List.of(), 0);
+        }
+        List<ArchiveSegment> all = segments;
+        if (all.isEmpty() || all.get(all.size() - 1).getLastLogId() < last) {
+            // read in the same transaction, so it holds every segment up to last
+            all = List.copyOf(segmentRepo.findAllByOrderByFirstLogIdAsc());
+            segments = all;
+        }
+        // a lagging replica may not have the newest segments this instance already knows
+        int visible = all.size();
+        while (visible > 0 && all.get(visible - 1).getLastLogId() > last) {
+            visible--;
+        }
+        return new View(all.subList(0, visible), last);
+    }
+
+    /** The segments up to one archived log id; see {@link LogArchive#view()}. */
+    public final class View {
+
+        private final List<ArchiveSegment> visible;
+        private final long archivedUpTo;
+        // newest createdOn of any archived row; null while nothing is archived
+        private final LocalDateTime horizon;
+
+        private View(List<ArchiveSegment> visible, long archivedUpTo) {
+            this.visible = visible;
+            this.archivedUpTo = archivedUpTo;
+            LocalDateTime newest = null;
+            for (ArchiveSegment s : visible) {
+                if (newest == null || s.getMaxCreatedOn().isAfter(newest)) {
+                    newest = s.getMaxCreatedOn();
+                }
+            }
+            this.horizon = newest;
+        }
+
+        /** Highest archived log id (0 when nothing is archived). */
+        public long archivedUpTo() {
+            return archivedUpTo;
+        }
+
+        /** Whether a table row is archived in this view, so must not be counted from the table too. */
+        public boolean covers(TransactionLog t) {
+            return t.getId() <= archivedUpTo;
+        }
+
+        /** Whether a time range starting at {@code from} reaches back into the archive. */
+        public boolean reaches(LocalDateTime from) {
+            return horizon != null && !from.isAfter(horizon);
+        }
+
+        /** Newest createdOn of any archived row, or null when nothing is archived. */
+        public LocalDateTime horizon() {
+            return horizon;
+        }
+
+        /**
+         * Archived rows sent or received by an account with createdOn in [from, to],
+         * oldest first. Segments are read one at a time as the stream is consumed.
+         * Segments hold consecutive id ranges, so across segments this is creation
+         * order up to clock skew between nodes.
+         */
+        public Stream<TransactionLog> stream(String accountId, LocalDateTime from, LocalDateTime to) {
+            if (!reaches(from)) {
+                return Stream.empty();
+            }
+            return overlapping(from, to).stream()
+                    .flatMap(s -> read(s, accountId, from, to).stream());
+        }
+
+        /**
+         * Up to {@code limit} archived rows of an account with createdOn in [from, to]
+         * that match {@code filter}, newest first. Reads segments from the newest back
+         * and stops once older segments can no longer change the result.
+         */
+        public List<TransactionLog> findNewest(String accountId, LocalDateTime from, LocalDateTime to,
+                                               Predicate<TransactionLog> filter, int limit) {
+            if (!reaches(from)) {
+                return List.of();
+            }
+            List<ArchiveSegment> candidates = overlapping(from, to);
+            List<TransactionLog> found = new ArrayList<>();
+            for (int i = candidates.size() - 1; i >= 0; i--) {
+                ArchiveSegment s = candidates.get(i);
+                if (found.size() >= limit && s.getMaxCreatedOn().isBefore(found.get(limit - 1).getCreatedOn())) {
+                    break;
+                }
+                for (TransactionLog t : read(s, accountId, from, to)) {
+                    if (filter.test(t)) {
+                        found.add(t);
+                    }
+                }
+                found.sort(OLDEST_FIRST.reversed());
+            }
+            return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+        }
+
+        private List<ArchiveSegment> overlapping(LocalDateTime from, LocalDateTime to) {
+            List<ArchiveSegment> result = new ArrayList<>();
+            for (ArchiveSegment s : visible) {
+                if (!s.getMaxCreatedOn().isBefore(from) && !s.getMinCreatedOn().isAfter(to)) {
+                    result.add(s);
+                }
+            }
+            return result;
+        }
+    }
+
+    private List<TransactionLog> read(ArchiveSegment segment, String accountId,
+                                      LocalDateTime from, LocalDateTime to) {
+        SegmentIndex index = index(segment);
+        int[] blocks = index.blocksOf(accountId);
+        if (blocks.length == 0) {
+            return List.of();
+        }
+        List<TransactionLog> rows = new ArrayList<>();
+        Path data = dir.resolve(segment.getFileName() + SegmentFormat.DATA_SUFFIX);
+        try (FileChannel ch = FileChannel.open(data, StandardOpenOption.READ)) {
+            for (int b : blocks) {
+                if (!index.overlaps(b, from, to)) {
+                    continue;
+                }
+                for (TransactionLog t : SegmentFormat.readBlock(ch, index.offsets[b], index.lengths[b])) {
+                    boolean ours = accountId.equals(t.getFromAccountId()) || accountId.equals(t.getToAccountId());
+                    if (ours && !t.getCreatedOn().isBefore(from) && !t.getCreatedOn().isAfter(to)) {
+                        rows.add(t);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive segment " + segment.getFileName(), e);
+        }
+        rows.sort(OLDEST_FIRST);
+        return rows;
+    }
+
+    private SegmentIndex index(ArchiveSegment segment) {
+        return indexes.get(segment.getFirstLogId(), id -> {
+            try {
+                return SegmentFormat.readIndex(dir, segment.getFileName());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive index " + segment.getFileName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,154 @@
+package com.bd.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.model.ArchiveSegment;
+import com.bd.model.TransactionLog;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.ArchiveSegmentRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+
+/**
+ * Moves transaction logs older than {@code archive.retention} out of the table.
+ * Archiving takes the table's oldest rows in id order and stops at the first one
+ * created inside the retention, so the archive is always a prefix of the id
+ * space. The age is checked on {@code created_on}, not inferred from the id:
+ * logs written before ids became time-ordered keep their small sequential ids,
+ * which sort below every time-ordered bound however recent they are.
+ *
+ * Each segment is a consecutive id range: it is written to disk first, then one
+ * transaction records it in the catalog and deletes exactly those rows. A crash
+ * in between leaves files no catalog entry points to; the next run rewrites them.
+ *
+ * Activity summaries of the accounts involved are seeded before their rows go,
+ * since they can no longer be aggregated from the table afterwards.
+ */
+@Component
+public class LogArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(LogArchiver.class);
+
+    private final TransactionLogRepository logRepo;
+    private final ArchiveSegmentRepository segmentRepo;
+    private final ActivitySummaryService summaryService;
+    private final LogArchive archive;
+    private final TransactionTemplate tx;
+    private final Duration retention;
+    private final int segmentRows;
+    private final int blockRows;
+    private final int maxSegmentsPerRun;
+
+    public LogArchiver(TransactionLogRepository logRepo,
+                       ArchiveSegmentRepository segmentRepo,
+                       ActivitySummaryService summaryService,
+                       LogArchive archive,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${archive.retention:90d}") Duration retention,
+                       @Value("${archive.segment-rows:20000}") int segmentRows,
+                       @Value("${archive.block-rows:256}") int blockRows,
+                       @Value("${archive.max-segments-per-run:10}") int maxSegmentsPerRun) {
+        this.logRepo = logRepo;
+        this.segmentRepo = segmentRepo;
+        this.summaryService = summaryService;
+        this.archive = archive;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.segmentRows = Math.max(1, segmentRows);
+        this.blockRows = Math.max(1, blockRows);
+        this.maxSegmentsPerRun = maxSegmentsPerRun;
+    }
+
+    // 🔹 Archive everything past the retention, one segment per transaction
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}",
+               initialDelayString = "${archive.initial-delay-ms:600000}")
+    public void archiveOldLogs() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        // no time-ordered id at or above this bound can be outside the retention
+        long beforeId = TimeOrderedIds.firstIdAt(Instant.now().minus(retention));
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        for (int i = 0; i < maxSegmentsPerRun; i++) {
+            List<TransactionLog> page = tx.execute(
+                    s -> logRepo.findArchivable(beforeId, PageRequest.of(0, segmentRows)));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            List<TransactionLog> rows = page.subList(0, olderThan(page, cutoff));
+            if (!rows.isEmpty()) {
+                archiveSegment(rows);
+            }
+            if (rows.size() < segmentRows) {
+                break;
+            }
+        }
+    }
+
+    // length of the leading run of rows created before the cutoff
+    static int olderThan(List<TransactionLog> rows, LocalDateTime cutoff) {
+        int n = 0;
+        while (n < rows.size() && rows.get(n).getCreatedOn().isBefore(cutoff)) {
+            n++;
+        }
+        return n;
+    }
+
+    private void archiveSegment(List<TransactionLog> rows) {
+        long firstId = rows.get(0).getId();
+        long lastId = rows.get(rows.size() - 1).getId();
+        LocalDateTime minCreated = rows.get(0).getCreatedOn();
+        LocalDateTime maxCreated = minCreated;
+        Set<String> accounts = new HashSet<>();
+        for (TransactionLog t : rows) {
+            if (t.getCreatedOn().isBefore(minCreated)) minCreated = t.getCreatedOn();
+            if (t.getCreatedOn().isAfter(maxCreated)) maxCreated = t.getCreatedOn();
+            accounts.add(t.getFromAccountId());
+            accounts.add(t.getToAccountId());
+        }
+        String name = SegmentFormat.baseName(firstId, lastId);
+        ArchiveSegment segment = new ArchiveSegment(firstId, lastId, minCreated, maxCreated, rows.size(), name);
+
+        try {
+            SegmentFormat.write(archive.directory(), name, rows, blockRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment " + name, e);
+        }
+        try {
+            tx.executeWithoutResult(s -> {
+                summaryService.ensureSeeded(accounts);
+                segmentRepo.save(segment);
+                int deleted = logRepo.deleteIdRange(firstId, lastId);
+                if (deleted != rows.size()) {
+                    throw new IllegalStateException("Archive segment " + name + " covers " + rows.size()
+                            + " rows but " + deleted + " were deleted");
+                }
+            });
+        } catch (RuntimeException e) {
+            try {
+                SegmentFormat.delete(archive.directory(), name);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        log.info("Archived {} transaction logs (ids {}..{}, created {} to {}) into {}",
+                rows.size(), firstId, lastId, minCreated, maxCreated, name);
+    }
+}
@@ -0,0 +1,228 @@
+package com.bd.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.bd.model.Money;
+import com.bd.model.TransactionLog;
+
+/**
+ * On-disk layout of an archive segment: two files named after the segment's id range.
+ * <ul>
+ *   <li>{@code .seg.gz}: the rows in id order, as one gzip member per block of rows
+ *       (so the file as a whole is still a plain gzip file)</li>
+ *   <li>{@code .idx.gz}: each block's offset, length and createdOn range, and for every
+ *       account the blocks that hold its rows (a sparse index: blocks, not rows)</li>
+ * </ul>
+ * Files are written under a temporary name, forced to disk and then renamed, so a
+ * segment file is either complete or absent.
+ */
+final class SegmentFormat {
+
+    static final String DATA_SUFFIX = ".seg.gz";
+    static final String INDEX_SUFFIX = ".idx.gz";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int VERSION = 1;
+
+    private SegmentFormat() {}
+
+    static String baseName(long firstLogId, long lastLogId) {
+        return "logs-" + firstLogId + "-" + lastLogId;
+    }
+
+    /** Writes the data and index files of a segment; {@code rows} must be sorted by id. */
+    static void write(Path dir, String baseName, List<TransactionLog> rows, int blockRows) throws IOException {
+        Files.createDirectories(dir);
+        int blockCount = (rows.size() + blockRows - 1) / blockRows;
+        long[] offsets = new long[blockCount];
+        int[] lengths = new int[blockCount];
+        LocalDateTime[] minCreated = new LocalDateTime[blockCount];
+        LocalDateTime[] maxCreated = new LocalDateTime[blockCount];
+        Map<String, List<Integer>> blocksByAccount = new TreeMap<>();
+
+        Path dataTmp = dir.resolve(baseName + DATA_SUFFIX + TMP_SUFFIX);
+        try (FileChannel ch = FileChannel.open(dataTmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (int b = 0; b < blockCount; b++) {
+                List<TransactionLog> block = rows.subList(b * blockRows, Math.min((b + 1) * blockRows, rows.size()));
+                byte[] bytes = encodeBlock(block);
+                writeFully(ch, bytes);
+                offsets[b] = offset;
+                lengths[b] = bytes.length;
+                offset += bytes.length;
+
+                for (TransactionLog t : block) {
+                    LocalDateTime created = t.getCreatedOn();
+                    if (minCreated[b] == null || created.isBefore(minCreated[b])) minCreated[b] = created;
+                    if (maxCreated[b] == null || created.isAfter(maxCreated[b])) maxCreated[b] = created;
+                    addBlock(blocksByAccount, t.getFromAccountId(), b);
+                    addBlock(blocksByAccount, t.getToAccountId(), b);
+                }
+            }
+            ch.force(true);
+        }
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(indexBytes))) {
+            out.writeInt(VERSION);
+            out.writeInt(blockCount);
+            for (int b = 0; b < blockCount; b++) {
+                out.writeLong(offsets[b]);
+                out.writeInt(lengths[b]);
+                writeTime(out, minCreated[b]);
+                writeTime(out, maxCreated[b]);
+            }
+            out.writeInt(blocksByAccount.size());
+            for (Map.Entry<String, List<Integer>> e : blocksByAccount.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue().size());
+                for (int b : e.getValue()) {
+                    out.writeInt(b);
+                }
+            }
+        }
+        Path indexTmp = dir.resolve(baseName + INDEX_SUFFIX + TMP_SUFFIX);
+        try (FileChannel ch = FileChannel.open(indexTmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(ch, indexBytes.toByteArray());
+            ch.force(true);
+        }
+
+        Files.move(dataTmp, dir.resolve(baseName + DATA_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTmp, dir.resolve(baseName + INDEX_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void delete(Path dir, String baseName) throws IOException {
+        for (String suffix : new String[] {DATA_SUFFIX, INDEX_SUFFIX}) {
+            Files.deleteIfExists(dir.resolve(baseName + suffix));
+            Files.deleteIfExists(dir.resolve(baseName + suffix + TMP_SUFFIX));
+        }
+    }
+
+    static SegmentIndex readIndex(Path dir, String baseName) throws IOException {
+        try (InputStream file = Files.newInputStream(dir.resolve(baseName + INDEX_SUFFIX));
+             DataInputStream in = new DataInputStream(new GZIPInputStream(file))) {
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported archive index version " + version + " in " + baseName);
+            }
+            int blockCount = in.readInt();
+            long[] offsets = new long[blockCount];
+            int[] lengths = new int[blockCount];
+            LocalDateTime[] minCreated = new LocalDateTime[blockCount];
+            LocalDateTime[] maxCreated = new LocalDateTime[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                offsets[b] = in.readLong();
+                lengths[b] = in.readInt();
+                minCreated[b] = readTime(in);
+                maxCreated[b] = readTime(in);
+            }
+            int accounts = in.readInt();
+            Map<String, int[]> blocksByAccount = new HashMap<>(accounts * 2);
+            for (int i = 0; i < accounts; i++) {
+                String accountId = in.readUTF();
+                int[] blocks = new int[in.readInt()];
+                for (int j = 0; j < blocks.length; j++) {
+                    blocks[j] = in.readInt();
+                }
+                blocksByAccount.put(accountId, blocks);
+            }
+            return new SegmentIndex(offsets, lengths, minCreated, maxCreated, blocksByAccount);
+        }
+    }
+
+    /** Reads and decodes one block of a segment's data file. */
+    static List<TransactionLog> readBlock(FileChannel ch, long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, offset + buf.position()) < 0) {
+                throw new IOException("Archive segment is truncated");
+            }
+        }
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(buf.array())))) {
+            int count = in.readInt();
+            List<TransactionLog> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                TransactionLog t = new TransactionLog();
+                t.setId(in.readLong());
+                t.setFromAccountId(in.readUTF());
+                t.setToAccountId(in.readUTF());
+                t.setAmount(Money.ofMinor(in.readLong()));
+                t.setStatus(in.readUTF());
+                t.setFailureReason(in.readBoolean() ? in.readUTF() : null);
+                t.setIdempotencyKey(in.readUTF());
+                t.setCreatedOn(readTime(in));
+                rows.add(t);
+            }
+            return rows;
+        }
+    }
+
+    private static byte[] encodeBlock(List<TransactionLog> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(block.size());
+            for (TransactionLog t : block) {
+                out.writeLong(t.getId());
+                out.writeUTF(t.getFromAccountId());
+                out.writeUTF(t.getToAccountId());
+                out.writeLong(t.getAmountMinor());
+                out.writeUTF(t.getStatus());
+                out.writeBoolean(t.getFailureReason() != null);
+                if (t.getFailureReason() != null) {
+                    out.writeUTF(t.getFailureReason());
+                }
+                out.writeUTF(t.getIdempotencyKey());
+                writeTime(out, t.getCreatedOn());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void addBlock(Map<String, List<Integer>> blocksByAccount, String accountId, int block) {
+        List<Integer> blocks = blocksByAccount.computeIfAbsent(accountId, id -> new ArrayList<>());
+        if (blocks.isEmpty() || blocks.get(blocks.size() - 1) != block) {
+            blocks.add(block);
+        }
+    }
+
+    private static void writeFully(FileChannel ch, byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    // createdOn is a local date-time; UTC is only used as a fixed encoding offset
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bd.archive;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/** In-memory form of a segment's index file (see {@link SegmentFormat}). */
+final class SegmentIndex {
+
+    private static final int[] NONE = new int[0];
+
+    final long[] offsets;
+    final int[] lengths;
+    final LocalDateTime[] minCreated;
+    final LocalDateTime[] maxCreated;
+    private final Map<String, int[]> blocksByAccount;
+
+    SegmentIndex(long[] offsets, int[] lengths, LocalDateTime[] minCreated, LocalDateTime[] maxCreated,
+                 Map<String, int[]> blocksByAccount) {
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.minCreated = minCreated;
+        this.maxCreated = maxCreated;
+        this.blocksByAccount = blocksByAccount;
+    }
+
+    /** Blocks holding at least one row sent or received by the account, in file order. */
+    int[] blocksOf(String accountId) {
+        return blocksByAccount.getOrDefault(accountId, NONE);
+    }
+
+    /** Whether block {@code b} can hold rows created in [from, to]. */
+    boolean overlaps(int b, LocalDateTime from, LocalDateTime to) {
+        return !maxCreated[b].isBefore(from) && !minCreated[b].isAfter(to);
+    }
+}
@@ -1,10 +1,18 @@
 package com.bd.controller;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.bd.dto.AccountDTO;
+import com.bd.dto.AccountPageDTO;
+import com.bd.exception.AccountNotFoundException;
+import com.bd.model.Money;
+import com.bd.outbox.AccountEventHub;
+import com.bd.service.BalanceSnapshotService;
 import com.bd.service.IAccountService;
 
 @RestController
@@ -22,9 +30,15 @@ import com.bd.service.IAccountService;
 public class AccountController {
 
     private final IAccountService accountService;
+    private final AccountEventHub eventHub;
+    private final BalanceSnapshotService snapshotService;
 
-    public AccountController(IAccountService accountService) {
+    public AccountController(IAccountService accountService,
+                             AccountEventHub eventHub,
+                             BalanceSnapshotService snapshotService) {
         this.accountService = accountService;
+        this.eventHub = eventHub;
+        this.snapshotService = snapshotService;
     }
 
     // CREATE
@@ -39,17 +53,45 @@ public class AccountController {
         return accountService.getAccountById(id);
     }
 
-    // READ balance only
+    // READ balance only; ?at=2025-01-31T23:59:59 gives the balance at that time instead
     @GetMapping("/{id}/balance")
-    public Double getBalance(@PathVariable String id) {
-        return accountService.getBalance(id);
+    public Money getBalance(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return at == null ? accountService.getBalance(id) : snapshotService.balanceAt(id, at);
     }
 
-    // READ all accounts
+    // READ accounts, one page at a time: ?status=ACTIVE&sort=id|holderName&cursor=...&size=50
     @GetMapping
-    public List<AccountDTO> getAllAccounts() {
-        return accountService.getAllAccounts();
+    public AccountPageDTO listAccounts(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false, defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "0") int size) {
+        return accountService.listAccounts(status, sort, cursor, size);
     }
+    // SUBSCRIBE to balance/transfer events (Server-Sent Events); a reconnecting client
+    // resumes after its Last-Event-ID header (or ?lastEventId= on the first connect)
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        if (!accountService.accountExists(id)) {
+            throw new AccountNotFoundException(id);
+        }
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        Long after = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                after = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid Last-Event-ID");
+            }
+        }
+        return eventHub.subscribe(id, after);
+    }
+
     // CHECK if account exists
     @GetMapping("/exists/{id}")
     public boolean accountExists(@PathVariable String id) {
@@ -1,12 +1,26 @@
 package com.bd.controller;
 
+import com.bd.dto.AccountActivitySummaryDTO;
+import com.bd.dto.BatchTransferResultDTO;
+import com.bd.dto.StatementDTO;
 import com.bd.dto.TransactionHistoryDTO;
+import com.bd.dto.TransactionHistoryFilter;
+import com.bd.dto.TransactionHistoryPageDTO;
+import com.bd.service.AccountStatementService;
+import com.bd.service.BatchTransferService;
+import com.bd.service.StatementExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.bd.dto.TransferRequestDTO;
 import com.bd.dto.TransferResponseDTO;
 import com.bd.service.ITransferService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,9 +37,18 @@ import java.util.List;
 public class TransferController {
 
     private final ITransferService transferService;
+    private final StatementExportService exportService;
+    private final BatchTransferService batchTransferService;
+    private final AccountStatementService statementService;
 
-    public TransferController(ITransferService transferService) {
+    public TransferController(ITransferService transferService,
+                              StatementExportService exportService,
+                              BatchTransferService batchTransferService,
+                              AccountStatementService statementService) {
         this.transferService = transferService;
+        this.exportService = exportService;
+        this.batchTransferService = batchTransferService;
+        this.statementService = statementService;
     }
 
     @PostMapping
@@ -33,10 +56,68 @@ public class TransferController {
         return transferService.transfer(request);
     }
 
+    // ✅ POST /api/v1/transfers/batch — one result per item, in request order
+    @PostMapping("/batch")
+    public List<BatchTransferResultDTO> transferBatch(@RequestBody List<TransferRequestDTO> requests) {
+        return batchTransferService.transferBatch(requests);
+    }
+
 
     // ✅ GET /api/v1/transfers/history/{accountId}
     @GetMapping("/history/{accountId}")
     public List<TransactionHistoryDTO> history(@PathVariable String accountId) {
         return transferService.getTransactionHistory(accountId);
     }
+
+    // ✅ GET /api/v1/transfers/history/{accountId}/page?direction=SENT&status=SUCCESS&from=...&to=...&cursor=...&size=20
+    @GetMapping("/history/{accountId}/page")
+    public TransactionHistoryPageDTO historyPage(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return transferService.getTransactionHistoryPage(
+                accountId, new TransactionHistoryFilter(direction, status, from, to), cursor, size);
+    }
+
+    // ✅ GET /api/v1/transfers/history/{accountId}/export?format=ndjson|csv&from=...&to=...
+    @GetMapping("/history/{accountId}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        // validate before the response is committed, so a bad format is still a clean 400
+        String fmt = StatementExportService.normalizeFormat(format);
+        MediaType type = StatementExportService.FORMAT_CSV.equals(fmt)
+                ? new MediaType("text", "csv")
+                : new MediaType("application", "x-ndjson");
+
+        StreamingResponseBody body = out -> exportService.export(accountId, fmt, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + accountId + "." + fmt + "\"")
+                .body(body);
+    }
+
+    // ✅ GET /api/v1/transfers/history/{accountId}/statement?from=...&to=...
+    //    opening/closing balance and a running balance per successful transfer in [from, to)
+    @GetMapping("/history/{accountId}/statement")
+    public StatementDTO statement(
+            @PathVariable String accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return statementService.statement(accountId, from, to);
+    }
+
+    // ✅ GET /api/v1/transfers/summary/{accountId}
+    @GetMapping("/summary/{accountId}")
+    public AccountActivitySummaryDTO summary(@PathVariable String accountId) {
+        return transferService.getActivitySummary(accountId);
+    }
 }
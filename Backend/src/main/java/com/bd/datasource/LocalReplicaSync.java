@@ -0,0 +1,126 @@
+package com.bd.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in for replication in the {@code replica-local} profile, where primary
+ * and replica are two separate in-memory H2 databases. The replica gets the
+ * primary's schema once at startup and then a full copy of its rows every
+ * {@code datasource.replica.local-sync-interval-ms}, each copy in one replica
+ * transaction — so reads routed to the replica lag behind writes the same way
+ * they would against a real asynchronous replica. H2 only; never for production.
+ */
+@Component
+@Profile("replica-local")
+public class LocalReplicaSync {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalReplicaSync.class);
+
+    private final DataSource primary;
+    private final String replicaUrl;
+    private final String replicaUser;
+    private final String replicaPassword;
+
+    private volatile boolean schemaCopied;
+
+    public LocalReplicaSync(@Qualifier("primaryPool") DataSource primary,
+                            @Value("${datasource.replica.url}") String replicaUrl,
+                            @Value("${datasource.replica.username:sa}") String replicaUser,
+                            @Value("${datasource.replica.password:}") String replicaPassword) {
+        this.primary = primary;
+        this.replicaUrl = replicaUrl;
+        this.replicaUser = replicaUser;
+        this.replicaPassword = replicaPassword;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void copySchema() throws SQLException {
+        // the replica pool is read-only, so the copy uses its own connection
+        try (Connection src = primary.getConnection();
+             Connection dst = DriverManager.getConnection(replicaUrl, replicaUser, replicaPassword);
+             Statement st = dst.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String sql : script(src, "SCRIPT NODATA")) {
+                st.execute(sql);
+            }
+        }
+        schemaCopied = true;
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.local-sync-interval-ms:1000}")
+    public void sync() {
+        if (!schemaCopied) {
+            return;
+        }
+        try (Connection src = primary.getConnection();
+             Connection dst = DriverManager.getConnection(replicaUrl, replicaUser, replicaPassword)) {
+            List<String> inserts = new ArrayList<>();
+            for (String sql : script(src, "SCRIPT SIMPLE")) {
+                if (sql.startsWith("INSERT INTO")) {
+                    inserts.add(sql);
+                }
+            }
+            dst.setAutoCommit(false);
+            try (Statement st = dst.createStatement()) {
+                st.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                for (String table : tables(dst)) {
+                    st.execute("DELETE FROM \"" + table + "\"");
+                }
+                for (String sql : inserts) {
+                    st.execute(sql);
+                }
+                dst.commit();
+            } catch (SQLException e) {
+                dst.rollback();
+                throw e;
+            } finally {
+                try (Statement st = dst.createStatement()) {
+                    st.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Local replica sync failed", e);
+        }
+    }
+
+    private static List<String> script(Connection con, String command) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(command)) {
+            while (rs.next()) {
+                statements.add(rs.getString(1));
+            }
+        }
+        return statements;
+    }
+
+    private static List<String> tables(Connection con) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES"
+                        + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        return tables;
+    }
+}
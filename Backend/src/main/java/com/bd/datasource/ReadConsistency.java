@@ -0,0 +1,44 @@
+package com.bd.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread switch that sends read-only transactions to the primary instead
+ * of the replica. Set for a whole request by {@link ReadYourWritesFilter}, or
+ * around a block of code with {@link #onPrimary}.
+ */
+public final class ReadConsistency {
+
+    // set and cleared around each request, so nothing leaks between pooled threads
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadConsistency() {}
+
+    public static boolean primaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    /** Runs {@code work} with read-only transactions routed to the primary. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = requirePrimary();
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Boolean requirePrimary() {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY.remove();
+        } else {
+            PRIMARY.set(previous);
+        }
+    }
+}
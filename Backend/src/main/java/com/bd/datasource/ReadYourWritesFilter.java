@@ -0,0 +1,83 @@
+package com.bd.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes for replica routing. A request reads from the primary when
+ * <ul>
+ *   <li>it sends {@code X-Read-Consistency: primary}, or</li>
+ *   <li>the same user made a successful write (any non-GET request) within
+ *       {@code datasource.replica.read-your-writes-window} — e.g. the balance and
+ *       history polls right after a transfer.</li>
+ * </ul>
+ * Runs after the security filter chain, so the authenticated user is known.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Consistency";
+
+    // username -> marker; presence means "wrote recently"
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(
+            @Value("${datasource.replica.read-your-writes-window:5s}") Duration window,
+            @Value("${datasource.replica.read-your-writes-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String user = currentUser();
+        boolean primary = "primary".equalsIgnoreCase(request.getHeader(HEADER))
+                || (user != null && recentWriters.getIfPresent(user) != null);
+
+        Boolean previous = primary ? ReadConsistency.requirePrimary() : null;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (primary) {
+                ReadConsistency.restore(previous);
+            }
+        }
+
+        if (user != null && isWrite(request) && response.getStatus() < 400) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String m = request.getMethod();
+        return !("GET".equals(m) || "HEAD".equals(m) || "OPTIONS".equals(m));
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated()) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bd.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read/write splitting, active when {@code datasource.replica.url} is set.
+ *
+ * The application DataSource is a {@link LazyConnectionDataSourceProxy}: the
+ * physical connection is only fetched at the first statement, once the
+ * transaction's read-only flag is known. Connections of
+ * {@code @Transactional(readOnly = true)} methods come from the replica pool;
+ * everything else (read-write transactions, reads outside a transaction such as
+ * idempotency lookups) uses the primary. {@link ReadConsistency} overrides the
+ * replica for callers that must see their own recent writes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaPool(Environment env) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(env.getRequiredProperty("datasource.replica.url"))
+                .username(env.getProperty("datasource.replica.username"))
+                .password(env.getProperty("datasource.replica.password"))
+                .build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") DataSource primary,
+                                 @Qualifier("replicaPool") DataSource replica) {
+        // read-only connections: replica, unless this thread asked for read-your-writes
+        AbstractRoutingDataSource readOnly = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ReadConsistency.primaryRequired() ? "primary" : "replica";
+            }
+        };
+        readOnly.setTargetDataSources(Map.of("primary", primary, "replica", replica));
+        readOnly.setDefaultTargetDataSource(primary);
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(readOnly);
+        return proxy;
+    }
+}
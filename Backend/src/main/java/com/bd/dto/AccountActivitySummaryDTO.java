@@ -0,0 +1,34 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+
+import com.bd.model.AccountActivitySummary;
+import com.bd.model.Money;
+
+public record AccountActivitySummaryDTO(
+        String accountId,
+        long totalCount,
+        long sentCount,
+        long receivedCount,
+        long successCount,
+        long failedCount,
+        Money totalDebited,
+        Money totalCredited,
+        LocalDateTime lastUpdated
+) {
+
+    public static AccountActivitySummaryDTO toDTO(AccountActivitySummary s) {
+        return new AccountActivitySummaryDTO(
+                s.getAccountId(),
+                // every log row carries exactly one status, so this is the number of rows
+                s.getSuccessCount() + s.getFailedCount(),
+                s.getSentCount(),
+                s.getReceivedCount(),
+                s.getSuccessCount(),
+                s.getFailedCount(),
+                s.getTotalDebited(),
+                s.getTotalCredited(),
+                s.getLastUpdated()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.bd.dto;
+
+/** Balance of one account (minor units) together with the row version it was read at. */
+public record AccountBalanceDTO(String id, long balanceMinor, long version) {
+
+    // used by the JPQL constructor expression (@Version column is a nullable Integer)
+    public AccountBalanceDTO(String id, long balanceMinor, Integer version) {
+        this(id, balanceMinor, version == null ? 0L : version.longValue());
+    }
+}
@@ -0,0 +1,30 @@
+package com.bd.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for account pages: the sort it belongs to, plus the sort
+ * key and id of the last row already returned.
+ */
+public record AccountCursor(String sort, String key, String id) {
+
+    public String encode() {
+        String raw = sort + "\n" + key + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AccountCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            return new AccountCursor(parts[0], parts[1], parts[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid account cursor");
+        }
+    }
+}
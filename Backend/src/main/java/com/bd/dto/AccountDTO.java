@@ -1,11 +1,11 @@
 package com.bd.dto;
 
-import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
 import com.bd.model.Account;
+import com.bd.model.Money;
 
 public class AccountDTO {
 
@@ -18,8 +18,7 @@ public class AccountDTO {
     )
     private String holderName;
 
-    @Min(value = 0, message = "Balance cannot be negative")
-    private double balance;
+    private Money balance = Money.ZERO;
 
     @NotNull(message = "Status is required")
     private String status;
@@ -56,8 +55,8 @@ public class AccountDTO {
     public String getHolderName() { return holderName; }
     public void setHolderName(String holderName) { this.holderName = holderName; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) {
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) {
             throw new UnsupportedOperationException("Use debit/credit methods");
     }
 
@@ -0,0 +1,28 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+
+import com.bd.model.Money;
+
+/**
+ * Payload of an account event on {@code /api/v1/accounts/{id}/events}. {@code balance}
+ * is the account's balance right after the transfer, or null when not known.
+ */
+public record AccountEventDTO(
+        long id,
+        String accountId,
+        String type,
+        Long transactionId,
+        String counterpartyId,
+        Money amount,
+        Money balance,
+        LocalDateTime createdOn
+) {
+    // JPQL constructor expression: amounts come straight from the minor-unit columns
+    public AccountEventDTO(Long id, String accountId, String type, Long transactionId,
+                           String counterpartyId, long amountMinor, Long balanceMinor,
+                           LocalDateTime createdOn) {
+        this(id, accountId, type, transactionId, counterpartyId, Money.ofMinor(amountMinor),
+                balanceMinor == null ? null : Money.ofMinor(balanceMinor), createdOn);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+
+import com.bd.model.Money;
+
+/** One row of the account listing, selected directly by a JPQL projection. */
+public record AccountListItemDTO(
+        String id,
+        String holderName,
+        Money balance,
+        String status,
+        LocalDateTime lastUpdated
+) {
+
+    // used by the JPQL constructor expression (balance column is in minor units)
+    public AccountListItemDTO(String id, String holderName, long balanceMinor,
+                              String status, LocalDateTime lastUpdated) {
+        this(id, holderName, Money.ofMinor(balanceMinor), status, lastUpdated);
+    }
+}
@@ -0,0 +1,9 @@
+package com.bd.dto;
+
+import java.util.List;
+
+public record AccountPageDTO(
+        List<AccountListItemDTO> items,
+        String nextCursor,
+        boolean hasMore
+) {}
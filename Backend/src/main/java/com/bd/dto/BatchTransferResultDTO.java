@@ -0,0 +1,9 @@
+package com.bd.dto;
+
+public record BatchTransferResultDTO(
+        int index,
+        String idempotencyKey,
+        Long transactionId,
+        String status,
+        String message
+) {}
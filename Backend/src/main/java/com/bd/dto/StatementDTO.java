@@ -0,0 +1,16 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.bd.model.Money;
+
+/** Account statement for [from, to): balances at both ends and the transfers in between, oldest first. */
+public record StatementDTO(
+        String accountId,
+        LocalDateTime from,
+        LocalDateTime to,
+        Money openingBalance,
+        Money closingBalance,
+        List<StatementEntryDTO> entries
+) {}
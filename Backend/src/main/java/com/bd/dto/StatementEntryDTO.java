@@ -0,0 +1,15 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+
+import com.bd.model.Money;
+
+/** One statement line: a successful transfer as seen by the account, and the balance right after it. */
+public record StatementEntryDTO(
+        Long transactionId,
+        LocalDateTime createdOn,
+        String type,            // DEBIT / CREDIT
+        String counterpartyId,
+        Money amount,
+        Money runningBalance
+) {}
@@ -2,11 +2,13 @@ package com.bd.dto;
 
 import java.time.LocalDateTime;
 
+import com.bd.model.Money;
+
 public record TransactionHistoryDTO(
         Long transactionId,
         String fromAccountId,
         String toAccountId,
-        Double amount,
+        Money amount,
         String status,
         String failureReason,
         LocalDateTime createdOn
@@ -0,0 +1,15 @@
+package com.bd.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters for the paged history API.
+ * direction: ALL / SENT / RECEIVED, status: SUCCESS / FAILED (null = any),
+ * from / to: inclusive createdOn bounds (null = unbounded).
+ */
+public record TransactionHistoryFilter(
+        String direction,
+        String status,
+        LocalDateTime from,
+        LocalDateTime to
+) {}
@@ -0,0 +1,9 @@
+package com.bd.dto;
+
+import java.util.List;
+
+public record TransactionHistoryPageDTO(
+        List<TransactionHistoryDTO> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -1,6 +1,7 @@
 package com.bd.dto;
 
-import jakarta.validation.constraints.Min;
+import com.bd.model.Money;
+
 import jakarta.validation.constraints.NotNull;
 
 public class TransferRequestDTO {
@@ -11,8 +12,8 @@ public class TransferRequestDTO {
     @NotNull
     private String toAccountId;
 
-    @Min(1)
-    private Double amount;
+    @NotNull
+    private Money amount;
 
     @NotNull
     private String idempotencyKey;
@@ -24,8 +25,8 @@ public class TransferRequestDTO {
     public String getToAccountId() { return toAccountId; }
     public void setToAccountId(String toAccountId) { this.toAccountId = toAccountId; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public String getIdempotencyKey() { return idempotencyKey; }
     public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
@@ -0,0 +1,42 @@
+package com.bd.exception;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.bd.model.Rejection;
+
+/**
+ * A {@link Rejection} thrown where an exception is still the API (e.g. {@code Account.debit}).
+ * Instances carry no stack trace and no mutable state, so one shared instance per
+ * rejection is thrown every time: see {@link #of(Rejection)}.
+ */
+public class BusinessRuleException extends RuntimeException {
+
+    private static final Map<Rejection, BusinessRuleException> SHARED = new EnumMap<>(Rejection.class);
+    static {
+        for (Rejection r : Rejection.values()) {
+            SHARED.put(r, switch (r) {
+                case INSUFFICIENT_BALANCE -> new InsufficientBalanceException();
+                case INACTIVE_ACCOUNT -> new InactiveAccountException();
+                default -> new BusinessRuleException(r);
+            });
+        }
+    }
+
+    private final Rejection rejection;
+
+    protected BusinessRuleException(Rejection rejection) {
+        // no cause, no suppression, no stack trace
+        super(rejection.message(), null, false, false);
+        this.rejection = rejection;
+    }
+
+    /** The preallocated exception for this rejection. */
+    public static BusinessRuleException of(Rejection rejection) {
+        return SHARED.get(rejection);
+    }
+
+    public Rejection getRejection() {
+        return rejection;
+    }
+}
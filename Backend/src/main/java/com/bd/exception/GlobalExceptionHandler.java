@@ -1,16 +1,36 @@
 package com.bd.exception;
 
 import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.bd.model.Rejection;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // business-rule rejections are expected traffic: one immutable body each, built once
+    // (no per-error timestamp; the response's Date header carries the time)
+    private static final Map<Rejection, Map<String, Object>> REJECTION_BODIES = new EnumMap<>(Rejection.class);
+    static {
+        for (Rejection r : Rejection.values()) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", HttpStatus.BAD_REQUEST.value());
+            body.put("error", HttpStatus.BAD_REQUEST.getReasonPhrase());
+            body.put("message", r.message());
+            REJECTION_BODIES.put(r, Collections.unmodifiableMap(body));
+        }
+    }
+
     // ---------- Account Not Found (404) ----------
     @ExceptionHandler(AccountNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleAccountNotFound(
@@ -19,18 +39,46 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    // ---------- Business Rule Rejections (400, precomputed body) ----------
+    @ExceptionHandler(BusinessRuleException.class)
+    public ResponseEntity<Map<String, Object>> handleRejection(
+            BusinessRuleException ex) {
+
+        return ResponseEntity.badRequest().body(REJECTION_BODIES.get(ex.getRejection()));
+    }
+
     // ---------- Business Rule Errors (400) ----------
-    @ExceptionHandler({
-            InactiveAccountException.class,
-            InsufficientBalanceException.class,
-            IllegalArgumentException.class
-    })
+    @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleBusinessExceptions(
             RuntimeException ex) {
 
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    // ---------- Load Shedding (429) ----------
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(
+            TooManyRequestsException ex) {
+
+        ResponseEntity<Map<String, Object>> base = buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(base.getBody());
+    }
+
+    // ---------- Unreadable Body (400), e.g. an amount with too many decimals ----------
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnreadableBody(
+            HttpMessageNotReadableException ex) {
+
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof IllegalArgumentException) {
+                return buildResponse(HttpStatus.BAD_REQUEST, t.getMessage());
+            }
+        }
+        return buildResponse(HttpStatus.BAD_REQUEST, "Malformed request body");
+    }
+
     // ---------- Validation Errors (400) ----------
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(
@@ -49,6 +97,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    // ---------- Client Gone (event streams) ----------
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientDisconnected(AsyncRequestNotUsableException ex) {
+        // the response can no longer be written: nothing to send
+    }
+
     // ---------- Fallback (500) ----------
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(
@@ -1,7 +1,9 @@
 package com.bd.exception;
 
-public class InactiveAccountException extends RuntimeException {
+import com.bd.model.Rejection;
+
+public class InactiveAccountException extends BusinessRuleException {
     public InactiveAccountException() {
-        super("Account is not ACTIVE");
+        super(Rejection.INACTIVE_ACCOUNT);
     }
 }
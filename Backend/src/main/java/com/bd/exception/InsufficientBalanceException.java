@@ -1,7 +1,9 @@
 package com.bd.exception;
 
-public class InsufficientBalanceException extends RuntimeException {
-    public InsufficientBalanceException(double balance, double amount) {
-        super("Insufficient balance. Available: " + balance + ", Requested: " + amount);
+import com.bd.model.Rejection;
+
+public class InsufficientBalanceException extends BusinessRuleException {
+    public InsufficientBalanceException() {
+        super(Rejection.INSUFFICIENT_BALANCE);
     }
 }
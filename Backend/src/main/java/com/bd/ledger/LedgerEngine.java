@@ -0,0 +1,344 @@
+package com.bd.ledger;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.model.Rejection;
+import com.bd.model.TransactionLog;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.OutboxEventRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+import com.bd.service.BalanceCache;
+import com.bd.service.FailureLogService;
+import com.bd.service.IdempotencyService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory transfer engine (transfer.engine=ledger).
+ *
+ * Every account is owned by one {@link LedgerPartition}, chosen by hashing its id.
+ * A transfer whose accounts share a partition is validated and applied in one
+ * partition task. A cross-partition transfer is a two-step handoff:
+ * <ol>
+ *   <li>the source partition validates and debits (the amount is now held);</li>
+ *   <li>the destination partition validates and credits; if it rejects, the hold
+ *       is released by a compensating task on the source partition.</li>
+ * </ol>
+ * Applied transfers go to {@link LedgerWriteBehind}, and the caller returns once
+ * that batch commits. No database row locks are held while a transfer is applied.
+ * The engine assumes it is the only writer of balances, so run it on one node only.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.engine", havingValue = "ledger")
+public class LedgerEngine {
+
+    private final LedgerPartition[] partitions;
+    private final LedgerWriteBehind writeBehind;
+    private final IdempotencyService idempotencyService;
+    private final FailureLogService failureLogService;
+    private final long responseTimeoutMs;
+
+    // keys applied in memory but not yet visible in transaction_logs
+    private final Set<String> inFlightKeys = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean accepting = true;
+
+    public LedgerEngine(AccountRepository accountRepo,
+                        TransactionLogRepository logRepo,
+                        OutboxEventRepository outboxRepo,
+                        ActivitySummaryService summaryService,
+                        FailureLogService failureLogService,
+                        IdempotencyService idempotencyService,
+                        BalanceCache balanceCache,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${ledger.partitions:0}") int partitionCount,
+                        @Value("${ledger.write-behind.batch-size:500}") int batchSize,
+                        @Value("${ledger.write-behind.capacity:10000}") int capacity,
+                        @Value("${ledger.response-timeout-ms:5000}") long responseTimeoutMs) {
+        this.idempotencyService = idempotencyService;
+        this.failureLogService = failureLogService;
+        this.responseTimeoutMs = responseTimeoutMs;
+
+        int n = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new LedgerPartition[n];
+        for (int i = 0; i < n; i++) {
+            partitions[i] = new LedgerPartition(i, accountRepo);
+        }
+        this.writeBehind = new LedgerWriteBehind(capacity, batchSize,
+                new TransactionTemplate(transactionManager),
+                accountRepo, logRepo, outboxRepo, summaryService, idempotencyService, balanceCache,
+                this::compensate);
+    }
+
+    public TransferResponseDTO transfer(TransferRequestDTO request) {
+        if (!accepting) {
+            return new TransferResponseDTO(null, "FAILED", "Ledger is shutting down");
+        }
+        if (writeBehind.stalled()) {
+            // nothing new is applied in memory while applied transfers cannot be written
+            return new TransferResponseDTO(null, "FAILED", "Ledger is unavailable, please retry");
+        }
+        String key = request.getIdempotencyKey();
+        if (key == null || key.isBlank()) {
+            return new TransferResponseDTO(null, "FAILED", "Idempotency key is required");
+        }
+        if (request.getAmount() == null) {
+            // not logged: a log row needs an amount
+            return new TransferResponseDTO(null, "FAILED", Rejection.NON_POSITIVE_DEBIT.message());
+        }
+
+        if (!inFlightKeys.add(key)) {
+            // not logged: a row with this key is about to be written by the original request
+            return new TransferResponseDTO(null, "FAILED", "Transfer with this idempotency key is in progress");
+        }
+
+        boolean pending = false;
+        try {
+            // checked after claiming the key, so a just-committed original is always seen
+            var replay = idempotencyService.lookup(key);
+            if (replay.isPresent()) {
+                return replay.get();
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(responseTimeoutMs);
+            CompletableFuture<Outcome> routed = route(request);
+            Outcome outcome;
+            try {
+                outcome = routed.get(responseTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // still queued on a partition and may yet be applied: keep the key claimed
+                // until it is either persisted or rejected, so a retry cannot apply it twice
+                pending = true;
+                routed.whenComplete((o, ex) -> settle(request, o, ex));
+                return new TransferResponseDTO(null, "PENDING", "Transfer accepted, not yet confirmed");
+            }
+            if (outcome.entry == null) {
+                return outcome.logRejection
+                        ? failed(request, outcome.rejection)
+                        : new TransferResponseDTO(null, "FAILED", outcome.rejection);
+            }
+
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            try {
+                return outcome.entry.persisted.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // applied in memory and still queued: it will commit, just not within our budget
+                pending = true;
+                outcome.entry.persisted.whenComplete((r, ex) -> inFlightKeys.remove(key));
+                return new TransferResponseDTO(null, "PENDING", "Transfer accepted, not yet confirmed");
+            }
+
+        } catch (ExecutionException e) {
+            return failed(request, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TransferResponseDTO(null, "FAILED", "Transfer interrupted");
+        } catch (RuntimeException e) {
+            return failed(request, e.getMessage());
+        } finally {
+            if (!pending) {
+                inFlightKeys.remove(key);
+            }
+        }
+    }
+
+    /** Finishes a transfer whose caller already got PENDING, then releases its key. */
+    private void settle(TransferRequestDTO request, Outcome outcome, Throwable error) {
+        String key = request.getIdempotencyKey();
+        if (outcome != null && outcome.entry != null) {
+            outcome.entry.persisted.whenComplete((r, ex) -> inFlightKeys.remove(key));
+            return;
+        }
+        try {
+            if (error != null) {
+                failed(request, error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+            } else if (outcome.logRejection) {
+                // logged so that a retry replays the rejection
+                failed(request, outcome.rejection);
+            }
+        } finally {
+            inFlightKeys.remove(key);
+        }
+    }
+
+    /** Drop a cached account so the ledger reloads it (call after out-of-band changes). */
+    public CompletableFuture<Void> evict(String accountId) {
+        return partitionFor(accountId).evict(accountId);
+    }
+
+    public int writeBehindDepth() {
+        return writeBehind.depth();
+    }
+
+    // ---------------- routing ----------------
+
+    private CompletableFuture<Outcome> route(TransferRequestDTO req) {
+        String fromId = req.getFromAccountId();
+        String toId = req.getToAccountId();
+        Money amount = req.getAmount();
+        LedgerPartition src = partitionFor(fromId);
+        LedgerPartition dst = partitionFor(toId);
+
+        if (src == dst) {
+            return src.submit(() -> {
+                Account from = src.account(fromId);
+                if (from == null) return Outcome.rejected(Rejection.FROM_ACCOUNT_NOT_FOUND.message(), false);
+                Account to = src.account(toId);
+                if (to == null) return Outcome.rejected(Rejection.TO_ACCOUNT_NOT_FOUND.message(), false);
+                if (fromId.equals(toId)) return Outcome.rejected(Rejection.SAME_ACCOUNT.message(), true);
+
+                // both legs checked before either is applied: nothing to undo on rejection
+                Rejection rejection = from.checkDebit(amount);
+                if (rejection == null) rejection = to.checkCredit(amount);
+                if (rejection != null) return Outcome.rejected(rejection.message(), true);
+                from.debit(amount);
+                to.credit(amount);
+                try {
+                    return applied(req);
+                } catch (RuntimeException e) {
+                    src.adjust(fromId, amount.minor());
+                    src.adjust(toId, -amount.minor());
+                    throw e;
+                }
+            });
+        }
+
+        // step 1: hold the amount on the source partition
+        CompletableFuture<Outcome> debit = src.submit(() -> {
+            Account from = src.account(fromId);
+            if (from == null) return Outcome.rejected(Rejection.FROM_ACCOUNT_NOT_FOUND.message(), false);
+            Rejection rejection = from.tryDebit(amount);
+            return rejection == null ? Outcome.HELD : Outcome.rejected(rejection.message(), true);
+        });
+
+        // step 2: credit on the destination partition, or release the hold
+        return debit.thenCompose(held -> {
+            if (held != Outcome.HELD) {
+                return CompletableFuture.completedFuture(held);
+            }
+            return dst.submit(() -> {
+                Account to = dst.account(toId);
+                if (to == null) return Outcome.rejected(Rejection.TO_ACCOUNT_NOT_FOUND.message(), false);
+                Rejection rejection = to.tryCredit(amount);
+                if (rejection != null) return Outcome.rejected(rejection.message(), true);
+                try {
+                    return applied(req);
+                } catch (RuntimeException e) {
+                    dst.adjust(toId, -amount.minor());
+                    throw e;
+                }
+            }).handle((credited, error) -> credited != null && credited.entry != null
+                    ? CompletableFuture.completedFuture(credited)
+                    // rejected, or the destination task failed (e.g. the account load):
+                    // either way nothing was credited, so the hold must be released
+                    : release(src, fromId, amount, credited, error))
+              .thenCompose(f -> f);
+        });
+    }
+
+    /** Gives a held amount back on the source partition, then reports the destination's result. */
+    private static CompletableFuture<Outcome> release(LedgerPartition src, String fromId, Money amount,
+                                                      Outcome credited, Throwable error) {
+        return src.submit(() -> {
+            src.adjust(fromId, amount.minor());
+            if (error != null) {
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
+            return credited;
+        });
+    }
+
+    /** Runs on the (last) owning partition thread once both legs are applied. */
+    private Outcome applied(TransferRequestDTO req) {
+        LedgerEntry entry = new LedgerEntry(req);
+        writeBehind.enqueue(entry);
+        return Outcome.applied(entry);
+    }
+
+    /**
+     * Undo both legs of an entry the database rejected. The credited balance may
+     * dip below zero in memory if it was already spent; the entries that spent it
+     * come later in the write-behind queue and are rejected and undone in turn,
+     * and debits are refused meanwhile, so memory converges back to the database.
+     */
+    private void compensate(LedgerEntry entry) {
+        String fromId = entry.request.getFromAccountId();
+        String toId = entry.request.getToAccountId();
+        long amount = entry.request.getAmount().minor();
+        partitionFor(fromId).submit(() -> { partitionFor(fromId).adjust(fromId, amount); return null; });
+        partitionFor(toId).submit(() -> { partitionFor(toId).adjust(toId, -amount); return null; });
+    }
+
+    private LedgerPartition partitionFor(String accountId) {
+        return partitions[Math.floorMod(accountId.hashCode(), partitions.length)];
+    }
+
+    private TransferResponseDTO failed(TransferRequestDTO request, String reason) {
+        TransactionLog log = new TransactionLog();
+        log.setFromAccountId(request.getFromAccountId());
+        log.setToAccountId(request.getToAccountId());
+        log.setAmount(request.getAmount());
+        log.setIdempotencyKey(request.getIdempotencyKey());
+        log.setStatus("FAILED");
+        log.setFailureReason(reason);
+        try {
+            failureLogService.saveFailureLog(log);
+        } catch (Exception ex) {
+            // same policy as the JPA path: a failed log write never masks the response
+        }
+        TransferResponseDTO response = new TransferResponseDTO(log.getId(), "FAILED", reason);
+        // the log is written behind: replayable from now on, like the JPA path
+        idempotencyService.rememberPending(request.getIdempotencyKey(), response);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        for (LedgerPartition p : partitions) {
+            p.shutdown(5_000);
+        }
+        writeBehind.stop(30_000);
+    }
+
+    /** Result of the in-memory phase: either applied (entry set) or rejected. */
+    private static final class Outcome {
+
+        static final Outcome HELD = new Outcome(null, false, null);
+
+        final String rejection;
+        final boolean logRejection;
+        final LedgerEntry entry;
+
+        private Outcome(String rejection, boolean logRejection, LedgerEntry entry) {
+            this.rejection = rejection;
+            this.logRejection = logRejection;
+            this.entry = entry;
+        }
+
+        static Outcome rejected(String reason, boolean log) {
+            return new Outcome(reason, log, null);
+        }
+
+        static Outcome applied(LedgerEntry entry) {
+            return new Outcome(null, false, entry);
+        }
+    }
+}
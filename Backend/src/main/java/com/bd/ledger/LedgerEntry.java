@@ -0,0 +1,20 @@
+package com.bd.ledger;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+
+/**
+ * A transfer already applied in memory and waiting to be written behind.
+ * {@code persisted} completes once its balances and log row are committed.
+ */
+final class LedgerEntry {
+
+    final TransferRequestDTO request;
+    final CompletableFuture<TransferResponseDTO> persisted = new CompletableFuture<>();
+
+    LedgerEntry(TransferRequestDTO request) {
+        this.request = request;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bd.ledger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.repository.AccountRepository;
+
+/**
+ * One single-writer shard of the ledger. All reads and writes of the accounts it
+ * owns happen on its one thread, so balances need no locks. Accounts are loaded
+ * from the database on first touch and kept as detached entities, which lets the
+ * partition apply exactly the same {@link Account#debit}/{@link Account#credit} rules.
+ */
+final class LedgerPartition {
+
+    private final int index;
+    private final ExecutorService executor;
+    private final AccountRepository accountRepo;
+
+    // confined to the partition thread
+    private final Map<String, Account> accounts = new HashMap<>();
+
+    LedgerPartition(int index, AccountRepository accountRepo) {
+        this.index = index;
+        this.accountRepo = accountRepo;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ledger-partition-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /** Owned account, loaded on first use; null if it does not exist. Partition thread only. */
+    Account account(String id) {
+        Account a = accounts.get(id);
+        if (a == null) {
+            a = accountRepo.findById(id).orElse(null);
+            if (a != null) {
+                accounts.put(id, a);
+            }
+        }
+        return a;
+    }
+
+    /** Raw balance adjustment used only to undo an applied leg. Partition thread only. */
+    void adjust(String id, long deltaMinor) {
+        Account a = accounts.get(id);
+        if (a != null) {
+            a.setBalance(Money.ofMinor(a.getBalance().minor() + deltaMinor));
+        }
+    }
+
+    /** Forget an account so its next use reloads it (e.g. after an admin status change). */
+    CompletableFuture<Void> evict(String id) {
+        return CompletableFuture.runAsync(() -> accounts.remove(id), executor);
+    }
+
+    int index() {
+        return index;
+    }
+
+    void shutdown(long timeoutMs) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
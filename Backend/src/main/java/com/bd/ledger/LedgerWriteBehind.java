@@ -0,0 +1,226 @@
+package com.bd.ledger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.TransferResponseDTO;
+import com.bd.exception.BusinessRuleException;
+import com.bd.model.OutboxEvent;
+import com.bd.model.Rejection;
+import com.bd.model.TransactionLog;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.OutboxEventRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+import com.bd.service.BalanceCache;
+import com.bd.service.IdempotencyService;
+
+/**
+ * Background writer that persists applied ledger transfers in batches: one
+ * transaction per batch inserts the log rows and applies the net balance
+ * delta of every touched account. Callers wait on {@link LedgerEntry#persisted},
+ * so a batch doubles as a group commit.
+ *
+ * Balance updates never take a row below zero: an entry whose credit was undone
+ * cannot be spent in the database, and is itself undone when it reaches the head
+ * of the queue. Entries are queued in the order they were applied, so the
+ * entries that depend on an undone one always come after it.
+ */
+final class LedgerWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerWriteBehind.class);
+    private static final long MAX_BACKOFF_MS = 5_000;
+
+    private final BlockingQueue<LedgerEntry> queue;
+    private final int batchSize;
+    private final TransactionTemplate tx;
+    private final AccountRepository accountRepo;
+    private final TransactionLogRepository logRepo;
+    private final OutboxEventRepository outboxRepo;
+    private final ActivitySummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceCache balanceCache;
+    private final Consumer<LedgerEntry> compensator;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean stalled;
+
+    LedgerWriteBehind(int capacity,
+                      int batchSize,
+                      TransactionTemplate tx,
+                      AccountRepository accountRepo,
+                      TransactionLogRepository logRepo,
+                      OutboxEventRepository outboxRepo,
+                      ActivitySummaryService summaryService,
+                      IdempotencyService idempotencyService,
+                      BalanceCache balanceCache,
+                      Consumer<LedgerEntry> compensator) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.tx = tx;
+        this.accountRepo = accountRepo;
+        this.logRepo = logRepo;
+        this.outboxRepo = outboxRepo;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.balanceCache = balanceCache;
+        this.compensator = compensator;
+        this.thread = new Thread(this::run, "ledger-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /** Blocks the calling partition when the queue is full (back-pressure). */
+    void enqueue(LedgerEntry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ledger is shutting down");
+        }
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    /** Stop after draining everything already queued. */
+    void stop(long timeoutMs) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMs);
+    }
+
+    private void run() {
+        List<LedgerEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerEntry first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** True while the database refuses writes; the engine takes no new transfers meanwhile. */
+    boolean stalled() {
+        return stalled;
+    }
+
+    /**
+     * Writes a batch; a batch failing because of one of its entries is split and
+     * written entry by entry, so only the offending entry is undone. Any other
+     * failure (database unreachable) is retried until it succeeds: balances already
+     * applied in memory are never rewritten because the database was unavailable.
+     */
+    private void flush(List<LedgerEntry> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<TransactionLog> logs = tx.execute(status -> persist(batch));
+                stalled = false;
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).persisted.complete(new TransferResponseDTO(
+                            logs.get(i).getId(), "SUCCESS", "Transfer completed successfully"));
+                }
+                return;
+            } catch (DataIntegrityViolationException | BusinessRuleException e) {
+                if (batch.size() > 1) {
+                    for (LedgerEntry entry : batch) {
+                        flush(List.of(entry));
+                    }
+                    return;
+                }
+                // this entry can never be written (repeated key, or its credit was undone
+                // and the balance no longer covers it): undo it in memory only
+                LedgerEntry entry = batch.get(0);
+                log.warn("Ledger entry {} rejected by the database, undoing it",
+                        entry.request.getIdempotencyKey(), e);
+                stalled = false;
+                compensator.accept(entry);
+                entry.persisted.complete(new TransferResponseDTO(null, "FAILED", "Transfer could not be persisted"));
+                return;
+            } catch (RuntimeException e) {
+                stalled = true;
+                if (!running) {
+                    // shutting down: nothing was written, and memory is discarded with the process
+                    log.error("Ledger batch of {} not persisted at shutdown", batch.size(), e);
+                    for (LedgerEntry entry : batch) {
+                        entry.persisted.complete(new TransferResponseDTO(null, "FAILED", "Transfer could not be persisted"));
+                    }
+                    return;
+                }
+                log.warn("Ledger batch of {} failed (attempt {}), retrying", batch.size(), attempt, e);
+                Thread.sleep(Math.min(MAX_BACKOFF_MS, 20L << Math.min(attempt, 8)));
+            }
+        }
+    }
+
+    private List<TransactionLog> persist(List<LedgerEntry> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionLog> logs = new ArrayList<>(batch.size());
+        // sorted so balance rows are always updated (and locked) in id order
+        Map<String, Long> deltas = new TreeMap<>();
+
+        for (LedgerEntry entry : batch) {
+            TransactionLog t = new TransactionLog();
+            t.setFromAccountId(entry.request.getFromAccountId());
+            t.setToAccountId(entry.request.getToAccountId());
+            t.setAmount(entry.request.getAmount());
+            t.setIdempotencyKey(entry.request.getIdempotencyKey());
+            t.setStatus("SUCCESS");
+            logs.add(t);
+
+            deltas.merge(t.getFromAccountId(), -t.getAmountMinor(), Long::sum);
+            deltas.merge(t.getToAccountId(), t.getAmountMinor(), Long::sum);
+        }
+
+        // summaries first: a missing summary is seeded from logs and must not see this batch
+        summaryService.recordAll(logs);
+        logRepo.saveAll(logs);
+        // per-transfer balances are not tracked here: events carry none
+        List<OutboxEvent> events = new ArrayList<>(logs.size() * 2);
+        for (TransactionLog t : logs) {
+            events.add(OutboxEvent.debit(t, null));
+            events.add(OutboxEvent.credit(t, null));
+        }
+        outboxRepo.saveAll(events);
+        deltas.forEach((id, delta) -> {
+            // 0 rows: the delta would take the balance below zero (see the split in flush)
+            if (accountRepo.applyBalanceDelta(id, delta, now) == 0) {
+                throw BusinessRuleException.of(Rejection.INSUFFICIENT_BALANCE);
+            }
+        });
+        // re-read under our row locks: exactly the values this batch commits
+        balanceCache.putAfterCommit(accountRepo.findBalancesByIds(deltas.keySet()));
+
+        Map<String, TransferResponseDTO> responses = new HashMap<>();
+        for (TransactionLog t : logs) {
+            responses.put(t.getIdempotencyKey(),
+                    new TransferResponseDTO(t.getId(), "SUCCESS", "Transfer completed successfully"));
+        }
+        idempotencyService.rememberAll(responses);
+        return logs;
+    }
+}
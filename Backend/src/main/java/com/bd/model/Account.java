@@ -2,8 +2,7 @@ package com.bd.model;
 
 import java.time.LocalDateTime;
 
-import com.bd.exception.InactiveAccountException;
-import com.bd.exception.InsufficientBalanceException;
+import com.bd.exception.BusinessRuleException;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -11,7 +10,14 @@ import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "accounts")
+@Table(
+        name = "accounts",
+        indexes = {
+                // keyset account listing: ORDER BY holder_name, id / WHERE status = ? ORDER BY id
+                @Index(name = "idx_account_holder", columnList = "holder_name, id"),
+                @Index(name = "idx_account_status", columnList = "status, id")
+        }
+)
 public class Account {
 
     @Id
@@ -23,9 +29,10 @@ public class Account {
     @Column(name = "holder_name", nullable = false)
     private String holderName;
 
+    // minor units (cents); exposed as Money
     @PositiveOrZero(message = "Balance cannot be negative")
-    @Column(nullable = false)
-    private double balance;
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
 
     @NotBlank
     @Pattern(
@@ -55,38 +62,65 @@ public class Account {
     }
 
     // ---------- business logic ----------
-	public void debit(double amount) {
 
-    if (!"ACTIVE".equals(this.status)) {
-        throw new InactiveAccountException();
+    /** Why this account cannot be debited by {@code amount}, or null if it can. */
+    public Rejection checkDebit(Money amount) {
+        if (!"ACTIVE".equals(this.status)) {
+            return Rejection.INACTIVE_ACCOUNT;
+        }
+        if (amount == null || !amount.isPositive()) {
+            return Rejection.NON_POSITIVE_DEBIT;
+        }
+        if (this.balance < amount.minor()) {
+            return Rejection.INSUFFICIENT_BALANCE;
+        }
+        return null;
     }
 
-    if (amount <= 0) {
-        throw new IllegalArgumentException("Debit amount must be positive");
+    /** Why this account cannot be credited with {@code amount}, or null if it can. */
+    public Rejection checkCredit(Money amount) {
+        if (!"ACTIVE".equals(this.status)) {
+            return Rejection.INACTIVE_ACCOUNT;
+        }
+        if (amount == null || !amount.isPositive()) {
+            return Rejection.NON_POSITIVE_CREDIT;
+        }
+        return null;
     }
 
-    if (this.balance < amount) {
-        throw new InsufficientBalanceException(this.balance, amount);
+    /** Debits the account unless a rule forbids it; returns that rule's rejection or null. */
+    public Rejection tryDebit(Money amount) {
+        Rejection rejection = checkDebit(amount);
+        if (rejection == null) {
+            this.balance -= amount.minor();
+            this.lastUpdated = LocalDateTime.now();
+        }
+        return rejection;
     }
 
-    this.balance -= amount;
-    this.lastUpdated = LocalDateTime.now();
-	}
-
-	public void credit(double amount) {
-
-		if (!"ACTIVE".equals(this.status)) {
-            throw new InactiveAccountException();
-		}
-
-		if (amount <= 0) {
-			throw new IllegalArgumentException("Credit amount must be positive");
-		}
+    /** Credits the account unless a rule forbids it; returns that rule's rejection or null. */
+    public Rejection tryCredit(Money amount) {
+        Rejection rejection = checkCredit(amount);
+        if (rejection == null) {
+            this.balance = Math.addExact(this.balance, amount.minor());
+            this.lastUpdated = LocalDateTime.now();
+        }
+        return rejection;
+    }
 
-		this.balance += amount;
-		this.lastUpdated = LocalDateTime.now();
-	}
+    public void debit(Money amount) {
+        Rejection rejection = tryDebit(amount);
+        if (rejection != null) {
+            throw BusinessRuleException.of(rejection);
+        }
+    }
 
+    public void credit(Money amount) {
+        Rejection rejection = tryCredit(amount);
+        if (rejection != null) {
+            throw BusinessRuleException.of(rejection);
+        }
+    }
 
     public boolean isActive() {
         return "ACTIVE".equalsIgnoreCase(this.status);
@@ -99,8 +133,8 @@ public class Account {
     public String getHolderName() { return holderName; }
     public void setHolderName(String holderName) { this.holderName = holderName; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public Money getBalance() { return Money.ofMinor(balance); }
+    public void setBalance(Money balance) { this.balance = balance.minor(); }
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
@@ -0,0 +1,78 @@
+package com.bd.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Running per-account aggregate of transaction_logs, maintained in the same
+ * transaction as every log insert so the counts never have to be recomputed.
+ */
+@Entity
+@Table(name = "account_activity_summary")
+public class AccountActivitySummary {
+
+    @Id
+    @Column(length = 64)
+    private String accountId;
+
+    @Column(nullable = false)
+    private long sentCount;
+
+    @Column(nullable = false)
+    private long receivedCount;
+
+    @Column(nullable = false)
+    private long successCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    // minor units (cents)
+    @Column(name = "total_debited_minor", nullable = false)
+    private long totalDebited;
+
+    @Column(name = "total_credited_minor", nullable = false)
+    private long totalCredited;
+
+    @Column(name = "last_updated", nullable = false)
+    private LocalDateTime lastUpdated;
+
+    public AccountActivitySummary() {}
+
+    public AccountActivitySummary(String accountId,
+                                  Long sentCount,
+                                  Long receivedCount,
+                                  Long successCount,
+                                  Long failedCount,
+                                  Long totalDebited,
+                                  Long totalCredited) {
+        this.accountId = accountId;
+        this.sentCount = sentCount == null ? 0 : sentCount;
+        this.receivedCount = receivedCount == null ? 0 : receivedCount;
+        this.successCount = successCount == null ? 0 : successCount;
+        this.failedCount = failedCount == null ? 0 : failedCount;
+        this.totalDebited = totalDebited == null ? 0 : totalDebited;
+        this.totalCredited = totalCredited == null ? 0 : totalCredited;
+    }
+
+    public static AccountActivitySummary empty(String accountId) {
+        return new AccountActivitySummary(accountId, 0L, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.lastUpdated = LocalDateTime.now();
+    }
+
+    // -------- getters --------
+    public String getAccountId() { return accountId; }
+    public long getSentCount() { return sentCount; }
+    public long getReceivedCount() { return receivedCount; }
+    public long getSuccessCount() { return successCount; }
+    public long getFailedCount() { return failedCount; }
+    public Money getTotalDebited() { return Money.ofMinor(totalDebited); }
+    public Money getTotalCredited() { return Money.ofMinor(totalCredited); }
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+}
@@ -2,13 +2,17 @@ package com.bd.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import com.bd.security.AppUserCacheListener;
+
 @Entity
 @Table(name = "users")
+@EntityListeners(AppUserCacheListener.class)
 public class AppUser {
 
     @Id
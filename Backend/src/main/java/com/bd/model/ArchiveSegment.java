@@ -0,0 +1,58 @@
+package com.bd.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Catalog entry for one archive segment: a consecutive range of transaction_logs ids
+ * that was moved out of the table into compressed files under {@code archive.dir}.
+ * Inserted in the same transaction that deletes the archived rows.
+ */
+@Entity
+@Table(name = "archive_segments")
+public class ArchiveSegment {
+
+    @Id
+    private Long firstLogId;
+
+    @Column(nullable = false)
+    private long lastLogId;
+
+    @Column(nullable = false)
+    private LocalDateTime minCreatedOn;
+
+    @Column(nullable = false)
+    private LocalDateTime maxCreatedOn;
+
+    @Column(nullable = false)
+    private int rowCount;
+
+    // base name of the .seg.gz / .idx.gz files
+    @Column(nullable = false, length = 128)
+    private String fileName;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedOn;
+
+    public ArchiveSegment() {}
+
+    public ArchiveSegment(long firstLogId, long lastLogId, LocalDateTime minCreatedOn,
+                          LocalDateTime maxCreatedOn, int rowCount, String fileName) {
+        this.firstLogId = firstLogId;
+        this.lastLogId = lastLogId;
+        this.minCreatedOn = minCreatedOn;
+        this.maxCreatedOn = maxCreatedOn;
+        this.rowCount = rowCount;
+        this.fileName = fileName;
+        this.archivedOn = LocalDateTime.now();
+    }
+
+    public Long getFirstLogId() { return firstLogId; }
+    public long getLastLogId() { return lastLogId; }
+    public LocalDateTime getMinCreatedOn() { return minCreatedOn; }
+    public LocalDateTime getMaxCreatedOn() { return maxCreatedOn; }
+    public int getRowCount() { return rowCount; }
+    public String getFileName() { return fileName; }
+    public LocalDateTime getArchivedOn() { return archivedOn; }
+}
@@ -0,0 +1,71 @@
+package com.bd.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * An account's balance as of a checkpoint: the effect of every successful
+ * transfer created before {@code asOf}, and nothing after it. Written by
+ * {@code BalanceSnapshotService}; balances at any other time are derived from
+ * the nearest snapshot plus the log rows in between.
+ */
+@Entity
+@Table(
+        name = "balance_snapshots",
+        indexes = {
+                // the job's checkpoint: SELECT MAX(last_log_id)
+                @Index(name = "idx_snapshot_last_log", columnList = "last_log_id")
+        }
+)
+@IdClass(BalanceSnapshot.Key.class)
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "account_id", length = 64)
+    private String accountId;
+
+    @Id
+    @Column(name = "as_of")
+    private LocalDateTime asOf;
+
+    // minor units (cents); exposed as Money
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
+
+    // newest transaction_logs id below the checkpoint (0 when there was none)
+    @Column(name = "last_log_id", nullable = false)
+    private long lastLogId;
+
+    public BalanceSnapshot() {}
+
+    public String getAccountId() { return accountId; }
+    public LocalDateTime getAsOf() { return asOf; }
+    public Money getBalance() { return Money.ofMinor(balance); }
+    public long getLastLogId() { return lastLogId; }
+
+    public static class Key implements Serializable {
+
+        private String accountId;
+        private LocalDateTime asOf;
+
+        public Key() {}
+
+        public Key(String accountId, LocalDateTime asOf) {
+            this.accountId = accountId;
+            this.asOf = asOf;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(accountId, k.accountId) && Objects.equals(asOf, k.asOf);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, asOf);
+        }
+    }
+}
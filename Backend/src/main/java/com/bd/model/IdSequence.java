@@ -0,0 +1,27 @@
+package com.bd.model;
+
+import jakarta.persistence.*;
+
+/** A named counter from which id generators reserve blocks of values. */
+@Entity
+@Table(name = "id_sequences")
+public class IdSequence {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // first value not yet handed out to any node
+    @Column(nullable = false)
+    private long nextValue;
+
+    public IdSequence() {}
+
+    public IdSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    public String getName() { return name; }
+    public long getNextValue() { return nextValue; }
+}
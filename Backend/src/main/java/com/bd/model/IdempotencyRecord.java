@@ -0,0 +1,61 @@
+package com.bd.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+
+/**
+ * The response originally returned for an idempotency key, kept for replay until
+ * {@code expiresAt}. The key is stored as the first 128 bits of its SHA-256
+ * (BINARY(16) on MySQL), not as the client's variable-length string.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(name = "idx_idem_expires", columnList = "expires_at")
+)
+public class IdempotencyRecord implements Persistable<UUID> {
+
+    @Id
+    private UUID keyHash;
+
+    private Long transactionId;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    private String message;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // records are insert-only: lets save() INSERT without a SELECT first
+    @Transient
+    private boolean isNew;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(UUID keyHash, Long transactionId, String status,
+                             String message, LocalDateTime expiresAt) {
+        this.keyHash = keyHash;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.message = message;
+        this.expiresAt = expiresAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public UUID getId() { return keyHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public Long getTransactionId() { return transactionId; }
+    public String getStatus() { return status; }
+    public String getMessage() { return message; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,90 @@
+package com.bd.model;
+
+import java.time.LocalDateTime;
+
+import com.bd.model.id.TimeOrderedId;
+
+import jakarta.persistence.*;
+
+/**
+ * One account's side of a committed transfer, written in the same transaction as
+ * the transfer itself (transactional outbox). Every instance's {@code OutboxRelay}
+ * tails the table by id and streams new rows to its own subscribers; rows are kept
+ * for {@code outbox.retention} so clients can resume from their last event id.
+ *
+ * Ids are allocated while the transfer holds its account row locks, so the events
+ * of one account are ordered by id in commit order.
+ */
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+                // resume: WHERE account_id = ? AND id > ? ORDER BY id
+                @Index(name = "idx_outbox_account", columnList = "account_id, id")
+        }
+)
+public class OutboxEvent {
+
+    public static final String DEBIT = "DEBIT";
+    public static final String CREDIT = "CREDIT";
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, length = 64)
+    private String accountId;
+
+    @Column(nullable = false, length = 8)
+    private String type; // DEBIT / CREDIT
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false, length = 64)
+    private String counterpartyId;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;
+
+    // balance right after this transfer; null when the engine does not know it (ledger)
+    @Column(name = "balance_minor")
+    private Long balance;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+
+    public OutboxEvent() {}
+
+    private OutboxEvent(String accountId, String type, Long transactionId, String counterpartyId,
+                        long amount, Long balance) {
+        this.accountId = accountId;
+        this.type = type;
+        this.transactionId = transactionId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+        this.balance = balance;
+        this.createdOn = LocalDateTime.now();
+    }
+
+    /** The sender's event; {@code balance} is its balance after the debit, or null if unknown. */
+    public static OutboxEvent debit(TransactionLog log, Long balance) {
+        return new OutboxEvent(log.getFromAccountId(), DEBIT, log.getId(), log.getToAccountId(),
+                log.getAmountMinor(), balance);
+    }
+
+    /** The receiver's event; {@code balance} is its balance after the credit, or null if unknown. */
+    public static OutboxEvent credit(TransactionLog log, Long balance) {
+        return new OutboxEvent(log.getToAccountId(), CREDIT, log.getId(), log.getFromAccountId(),
+                log.getAmountMinor(), balance);
+    }
+
+    public Long getId() { return id; }
+    public String getAccountId() { return accountId; }
+    public String getType() { return type; }
+    public Long getTransactionId() { return transactionId; }
+    public String getCounterpartyId() { return counterpartyId; }
+    public long getAmountMinor() { return amount; }
+    public Long getBalanceMinor() { return balance; }
+    public LocalDateTime getCreatedOn() { return createdOn; }
+}
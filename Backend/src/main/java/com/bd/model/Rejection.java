@@ -0,0 +1,27 @@
+package com.bd.model;
+
+/**
+ * Expected reasons for refusing a transfer. These are business outcomes, not
+ * errors: they are returned as values on the transfer paths, and every message is
+ * a constant so a rejection allocates nothing.
+ */
+public enum Rejection {
+
+    INACTIVE_ACCOUNT("Account is not ACTIVE"),
+    NON_POSITIVE_DEBIT("Debit amount must be positive"),
+    NON_POSITIVE_CREDIT("Credit amount must be positive"),
+    INSUFFICIENT_BALANCE("Insufficient balance"),
+    SAME_ACCOUNT("Cannot transfer to same account"),
+    FROM_ACCOUNT_NOT_FOUND("From account not found"),
+    TO_ACCOUNT_NOT_FOUND("To account not found");
+
+    private final String message;
+
+    Rejection(String message) {
+        this.message = message;
+    }
+
+    public String message() {
+        return message;
+    }
+}
@@ -2,14 +2,24 @@ package com.bd.model;
 
 import java.time.LocalDateTime;
 
+import com.bd.model.id.TimeOrderedId;
+
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "transaction_logs")
+@Table(
+        name = "transaction_logs",
+        indexes = {
+                // keyset history pages: WHERE from/to = ? ORDER BY created_on DESC, id DESC
+                @Index(name = "idx_tx_from_created", columnList = "from_account_id, created_on"),
+                @Index(name = "idx_tx_to_created", columnList = "to_account_id, created_on")
+        }
+)
 public class TransactionLog {
 
+    // time-ordered ids allocated in memory: lets Hibernate batch log inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false)
@@ -18,8 +28,9 @@ public class TransactionLog {
     @Column(nullable = false)
     private String toAccountId;
 
-    @Column(nullable = false)
-    private Double amount;
+    // minor units (cents); exposed as Money
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;
 
     @Column(nullable = false)
     private String status; // SUCCESS / FAILED
@@ -34,7 +45,9 @@ public class TransactionLog {
 
     @PrePersist
     public void onCreate() {
-        this.createdOn = LocalDateTime.now();
+        if (this.createdOn == null) {
+            this.createdOn = LocalDateTime.now();
+        }
     }
 
     // -------- getters & setters --------
@@ -43,6 +56,11 @@ public class TransactionLog {
         return id;
     }
 
+    // for rows written later (write-behind) whose id is handed out up front
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getFromAccountId() {
         return fromAccountId;
     }
@@ -59,12 +77,16 @@ public class TransactionLog {
         this.toAccountId = toAccountId;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
+        return Money.ofMinor(amount);
+    }
+
+    public long getAmountMinor() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
+    public void setAmount(Money amount) {
+        this.amount = amount.minor();
     }
 
     public String getStatus() {
@@ -94,4 +116,8 @@ public class TransactionLog {
     public LocalDateTime getCreatedOn() {
         return createdOn;
     }
+
+    public void setCreatedOn(LocalDateTime createdOn) {
+        this.createdOn = createdOn;
+    }
 }
@@ -0,0 +1,31 @@
+package com.bd.model.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup check of the {@link TimeOrderedIds} node id. Two instances with the same
+ * node id allocate the same ids, so an unset node id (defaulting to 0) is only safe
+ * while a single instance uses the database. With {@code mts.node-id.required=true}
+ * the application refuses to start without one; otherwise it logs a warning.
+ */
+@Component
+public class NodeIdCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeIdCheck.class);
+
+    public NodeIdCheck(@Value("${mts.node-id.required:false}") boolean required) {
+        if (TimeOrderedIds.nodeIdConfigured()) {
+            log.info("Id allocator node id {}", TimeOrderedIds.nodeId());
+            return;
+        }
+        if (required) {
+            throw new IllegalStateException("MTS_NODE_ID (or -Dmts.node-id) must be set to a node id unique "
+                    + "among the instances sharing this database (0-" + TimeOrderedIds.MAX_NODE + ")");
+        }
+        log.warn("MTS_NODE_ID is not set: using node id 0. Every instance sharing this database needs its own "
+                + "node id (0-{}), or their transaction log and outbox ids will collide", TimeOrderedIds.MAX_NODE);
+    }
+}
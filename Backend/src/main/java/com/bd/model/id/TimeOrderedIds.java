@@ -0,0 +1,87 @@
+package com.bd.model.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit id allocator (TSID style), kept below 2^53 so ids stay exact
+ * in JavaScript clients:
+ * <pre>
+ *   | 41 bits: ms since 2024-01-01 | 8 bits: sequence | 4 bits: node |
+ * </pre>
+ * Each millisecond is an in-memory block of 256 ids. Ids come from one CAS on an
+ * AtomicLong, with no database round trip, so Hibernate can batch the inserts that
+ * use them. When a block runs out, the allocator moves on to the next millisecond.
+ * Ids are strictly increasing per node and roughly ordered by creation time across
+ * nodes, which keeps (account, created_on) index inserts local.
+ *
+ * The node id (0-15) comes from the MTS_NODE_ID environment variable or the
+ * mts.node-id system property, and must be unique per running instance. Without
+ * either, the node id is 0 and {@link NodeIdCheck} warns (or refuses to start).
+ */
+public final class TimeOrderedIds {
+
+    static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private static final long STEP = 1L << NODE_BITS;
+    private static final int TIME_SHIFT = SEQUENCE_BITS + NODE_BITS;
+
+    private static final String CONFIGURED_NODE_ID = configuredNodeId();
+    private static final TimeOrderedIds INSTANCE = new TimeOrderedIds(
+            CONFIGURED_NODE_ID == null ? 0 : Long.parseLong(CONFIGURED_NODE_ID));
+
+    private final long node;
+    private final AtomicLong last = new AtomicLong();
+
+    TimeOrderedIds(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    /** Next id from the process-wide allocator. */
+    public static long next() {
+        return INSTANCE.nextId();
+    }
+
+    /** Creation time encoded in an id produced by this allocator. */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIME_SHIFT) + EPOCH_MS);
+    }
+
+    /** Smallest id that can be allocated at or after {@code time}: a bound for id range scans by time. */
+    public static long firstIdAt(Instant time) {
+        return (time.toEpochMilli() - EPOCH_MS) << TIME_SHIFT;
+    }
+
+    long nextId() {
+        long floor = ((System.currentTimeMillis() - EPOCH_MS) << TIME_SHIFT) | node;
+        while (true) {
+            long prev = last.get();
+            // same block: bump the sequence; a full block carries into the next millisecond
+            long candidate = Math.max(prev + STEP, floor);
+            if (last.compareAndSet(prev, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    /** This process's node id. */
+    public static long nodeId() {
+        return INSTANCE.node;
+    }
+
+    /** Whether the node id was set explicitly rather than defaulted to 0. */
+    public static boolean nodeIdConfigured() {
+        return CONFIGURED_NODE_ID != null;
+    }
+
+    private static String configuredNodeId() {
+        String value = System.getProperty("mts.node-id", System.getenv("MTS_NODE_ID"));
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,294 @@
+package com.bd.outbox;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bd.dto.AccountEventDTO;
+import com.bd.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Server-Sent Event subscriptions to account activity, kept in memory per account.
+ *
+ * A subscriber that reconnects with its last event id first gets the events it
+ * missed, read from the outbox up to what {@link OutboxRelay} has already streamed;
+ * events the relay publishes meanwhile are held back and sent after that replay,
+ * skipping any already sent. Idle subscribers cost no database work: only the relay
+ * reads the outbox, once per interval, for all of them.
+ *
+ * Each event is serialized once however many clients watch the account, then queued
+ * per subscriber ({@code outbox.sse.queue-capacity}) and written by a sender thread,
+ * so the relay never waits on a client's socket. A client whose queue fills up is
+ * too slow to keep up and is disconnected; it can resume from its last event id.
+ */
+@Component
+public class AccountEventHub implements MeterBinder {
+
+    static final String EVENT_NAME = "transfer";
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final Encoded HEARTBEAT = new Encoded(-1, null);
+
+    private final OutboxEventRepository outboxRepo;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final ExecutorService sender;
+
+    private final Map<String, Set<Subscriber>> byAccount = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong slowDropped = new AtomicLong();
+
+    // highest event id the relay has read (or skipped for lack of subscribers)
+    private volatile long streamedUpTo;
+
+    public AccountEventHub(OutboxEventRepository outboxRepo,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${outbox.sse.timeout:30m}") Duration timeout,
+                           @Value("${outbox.sse.queue-capacity:1000}") int queueCapacity) {
+        this.outboxRepo = outboxRepo;
+        // not read-only: a lagging replica could miss events the relay already streamed
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeout.toMillis();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        // a thread per busy subscriber: one blocked socket never holds up the others
+        AtomicInteger seq = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "account-events-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens a stream of the account's events. With {@code lastEventId} set, events
+     * after it that are still retained in the outbox are sent first.
+     */
+    public SseEmitter subscribe(String accountId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber s = new Subscriber(accountId, emitter, lastEventId == null ? 0 : lastEventId);
+        // registered before reading streamedUpTo, so no event can fall between replay and relay
+        byAccount.compute(accountId, (k, set) -> {
+            Set<Subscriber> subs = set != null ? set : ConcurrentHashMap.newKeySet();
+            subs.add(s);
+            return subs;
+        });
+        subscribers.incrementAndGet();
+        emitter.onCompletion(s::gone);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> s.gone());
+
+        if (lastEventId != null) {
+            long upTo = streamedUpTo;
+            long after = lastEventId;
+            while (true) {
+                long from = after;
+                List<AccountEventDTO> missed = tx.execute(st -> outboxRepo.findForAccount(
+                        accountId, from, upTo, PageRequest.of(0, REPLAY_PAGE_SIZE)));
+                for (AccountEventDTO e : missed) {
+                    s.replay(encode(e));
+                }
+                if (missed.size() < REPLAY_PAGE_SIZE) {
+                    break;
+                }
+                after = missed.get(missed.size() - 1).id();
+            }
+        }
+        s.live();
+        return emitter;
+    }
+
+    /** Called by the relay before it publishes events with ids up to {@code upTo}. */
+    void advance(long upTo) {
+        streamedUpTo = upTo;
+    }
+
+    boolean hasSubscribers() {
+        return subscribers.get() > 0;
+    }
+
+    /** Queues newly published events (in id order) for the subscribers of their accounts. */
+    void publish(List<AccountEventDTO> events) {
+        for (AccountEventDTO e : events) {
+            Set<Subscriber> subs = byAccount.get(e.accountId());
+            if (subs == null || subs.isEmpty()) {
+                continue;
+            }
+            Encoded encoded = encode(e);
+            for (Subscriber s : subs) {
+                s.offer(encoded);
+            }
+        }
+    }
+
+    // 🔹 Comment lines keep idle connections open through proxies and detect gone clients
+    @Scheduled(fixedDelayString = "${outbox.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subs : byAccount.values()) {
+            for (Subscriber s : subs) {
+                s.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open account event streams")
+                .register(registry);
+        FunctionCounter.builder("account.events.slow.dropped", slowDropped, AtomicLong::get)
+                .description("Event streams closed because the client fell too far behind")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void remove(Subscriber s) {
+        byAccount.computeIfPresent(s.accountId, (k, set) -> {
+            if (set.remove(s)) {
+                subscribers.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private Encoded encode(AccountEventDTO e) {
+        return new Encoded(e.id(), objectMapper.writeValueAsString(e));
+    }
+
+    private record Encoded(long id, String json) {}
+
+    /**
+     * One open stream. Events are queued by the relay and written by at most one
+     * sender task at a time; sends never repeat an id. A lock rather than
+     * {@code synchronized} guards the emitter, so a blocked write does not pin a
+     * virtual thread to its carrier.
+     */
+    private final class Subscriber {
+
+        final String accountId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Encoded> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final ReentrantLock sendLock = new ReentrantLock();
+        // false while the replay runs: queued events wait for it
+        private volatile boolean live;
+        private volatile boolean closed;
+        private long lastSentId; // guarded by sendLock
+
+        Subscriber(String accountId, SseEmitter emitter, long lastSentId) {
+            this.accountId = accountId;
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+        }
+
+        void replay(Encoded e) {
+            sendLock.lock();
+            try {
+                send(e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void live() {
+            live = true;
+            schedule();
+        }
+
+        // never blocks: the relay and the heartbeat call this for every subscriber
+        void offer(Encoded e) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(e)) {
+                slowDropped.incrementAndGet();
+                gone();
+                schedule();
+                return;
+            }
+            if (live) {
+                schedule();
+            }
+        }
+
+        void gone() {
+            closed = true;
+            remove(this);
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                sendLock.lock();
+                try {
+                    Encoded e;
+                    while (!closed && (e = queue.poll()) != null) {
+                        send(e);
+                    }
+                    if (closed) {
+                        // the client is gone or too slow: no error dispatch, nobody to send an error body to
+                        queue.clear();
+                        emitter.complete();
+                        return;
+                    }
+                } finally {
+                    sendLock.unlock();
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(Encoded e) {
+            if (closed) {
+                return;
+            }
+            try {
+                if (e == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else if (e.id() > lastSentId) {
+                    emitter.send(SseEmitter.event().id(Long.toString(e.id())).name(EVENT_NAME).data(e.json()));
+                    lastSentId = e.id();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                gone();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bd.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.AccountEventDTO;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.OutboxEventRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tails the transactional outbox and hands new events to this instance's
+ * {@link AccountEventHub}. Nothing is marked in the table: every instance keeps its
+ * own id watermark and reads the same rows, so a stream sees every event whichever
+ * instance it is connected to. Events are kept for {@code outbox.retention} so
+ * clients can resume, then purged by age.
+ *
+ * Ids are time-ordered but allocated before their transaction commits, so the tail
+ * stays {@code outbox.relay.settle} behind the clock: an id range is read only once
+ * every transaction that could still add to it has committed. The settle time must
+ * cover allocation-to-commit time plus clock skew between instances.
+ *
+ * Runs on its own thread, so a slow database read never delays other scheduled jobs.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepo;
+    private final AccountEventHub hub;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final long intervalMs;
+    private final Duration settle;
+    private final Duration retention;
+    private final ScheduledExecutorService executor;
+
+    // highest id handed to the hub; only touched by the relay thread
+    private long watermark;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo,
+                       AccountEventHub hub,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.interval-ms:200}") long intervalMs,
+                       @Value("${outbox.relay.settle:2s}") Duration settle,
+                       @Value("${outbox.retention:24h}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.hub = hub;
+        // not read-only: on a lagging replica the watermark would pass rows not yet replicated
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMs = Math.max(1, intervalMs);
+        this.settle = settle;
+        this.retention = retention;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        // streams start with the events committed from now on
+        this.watermark = settledUpTo();
+        hub.advance(watermark);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                relay();
+            } catch (RuntimeException e) {
+                // retried from the same watermark on the next run
+                log.warn("Outbox relay failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void relay() {
+        long upTo = settledUpTo();
+        if (upTo <= watermark) {
+            return;
+        }
+        // before the check: a subscriber that arrives after it replays up to upTo itself
+        hub.advance(upTo);
+        if (!hub.hasSubscribers()) {
+            watermark = upTo;
+            return;
+        }
+        List<AccountEventDTO> batch;
+        do {
+            long after = watermark;
+            batch = tx.execute(s -> outboxRepo.findInRange(after, upTo, PageRequest.of(0, batchSize)));
+            hub.publish(batch);
+            watermark = batch.size() == batchSize ? batch.get(batch.size() - 1).id() : upTo;
+        } while (batch.size() == batchSize);
+    }
+
+    // 🔹 Drop events that are past the resume window
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        long beforeId = TimeOrderedIds.firstIdAt(Instant.now().minus(retention));
+        tx.executeWithoutResult(s -> outboxRepo.deleteBefore(beforeId));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // largest id whose transaction has had the settle time to commit
+    private long settledUpTo() {
+        return TimeOrderedIds.firstIdAt(Instant.now().minus(settle)) - 1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bd.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bd.model.AccountActivitySummary;
+
+public interface AccountActivitySummaryRepository extends JpaRepository<AccountActivitySummary, String> {
+
+    // 🔹 Atomic in-place increment, safe under concurrent transfers on the same account
+    @Modifying
+    @Query("""
+        UPDATE AccountActivitySummary s
+        SET s.sentCount = s.sentCount + :sent,
+            s.receivedCount = s.receivedCount + :received,
+            s.successCount = s.successCount + :success,
+            s.failedCount = s.failedCount + :failed,
+            s.totalDebited = s.totalDebited + :debited,
+            s.totalCredited = s.totalCredited + :credited,
+            s.lastUpdated = :now
+        WHERE s.accountId = :accountId
+    """)
+    int applyDelta(
+            @Param("accountId") String accountId,
+            @Param("sent") long sent,
+            @Param("received") long received,
+            @Param("success") long success,
+            @Param("failed") long failed,
+            @Param("debited") long debitedMinor,
+            @Param("credited") long creditedMinor,
+            @Param("now") LocalDateTime now
+    );
+
+    // 🔹 Seeds the summary of an account created before summaries existed from its logs,
+    //    in one statement; fails with a duplicate key if another transaction seeded it first
+    @Modifying
+    @Query("""
+        INSERT INTO AccountActivitySummary (accountId, sentCount, receivedCount, successCount, failedCount,
+                                            totalDebited, totalCredited, lastUpdated)
+        SELECT a.id,
+            SUM(CASE WHEN t.fromAccountId = a.id THEN 1L ELSE 0L END),
+            SUM(CASE WHEN t.toAccountId = a.id THEN 1L ELSE 0L END),
+            SUM(CASE WHEN t.status = 'SUCCESS' THEN 1L ELSE 0L END),
+            SUM(CASE WHEN t.status = 'FAILED' THEN 1L ELSE 0L END),
+            SUM(CASE WHEN t.status = 'SUCCESS' AND t.fromAccountId = a.id THEN t.amount ELSE 0L END),
+            SUM(CASE WHEN t.status = 'SUCCESS' AND t.toAccountId = a.id THEN t.amount ELSE 0L END),
+            :now
+        FROM Account a
+        LEFT JOIN TransactionLog t ON t.fromAccountId = a.id OR t.toAccountId = a.id
+        WHERE a.id = :accountId
+        GROUP BY a.id
+    """)
+    int seedFromLogs(@Param("accountId") String accountId, @Param("now") LocalDateTime now);
+}
@@ -1,17 +1,85 @@
 package com.bd.repository;
 
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bd.dto.AccountBalanceDTO;
+import com.bd.dto.AccountListItemDTO;
 import com.bd.model.Account;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String>{
     Optional<Account> findByHolderNameIgnoreCase(String holderName);
 
+    // 🔹 Balance reads: just the balance and version columns
+    @Query("SELECT new com.bd.dto.AccountBalanceDTO(a.id, a.balance, a.version) FROM Account a WHERE a.id = :id")
+    Optional<AccountBalanceDTO> findBalanceById(@Param("id") String id);
+
+    @Query("SELECT new com.bd.dto.AccountBalanceDTO(a.id, a.balance, a.version) FROM Account a WHERE a.id IN :ids")
+    List<AccountBalanceDTO> findBalancesByIds(@Param("ids") Collection<String> ids);
+
+    // 🔹 Account listing: DTO projections (no managed entities), keyset-paged
+    @Query("""
+        SELECT new com.bd.dto.AccountListItemDTO(a.id, a.holderName, a.balance, a.status, a.lastUpdated)
+        FROM Account a
+        WHERE (:status IS NULL OR a.status = :status)
+          AND a.id > :afterId
+        ORDER BY a.id
+    """)
+    List<AccountListItemDTO> findPageById(
+            @Param("status") String status,
+            @Param("afterId") String afterId,
+            Pageable limit
+    );
+
+    @Query("""
+        SELECT new com.bd.dto.AccountListItemDTO(a.id, a.holderName, a.balance, a.status, a.lastUpdated)
+        FROM Account a
+        WHERE (:status IS NULL OR a.status = :status)
+          AND (a.holderName > :afterName
+               OR (a.holderName = :afterName AND a.id > :afterId))
+        ORDER BY a.holderName, a.id
+    """)
+    List<AccountListItemDTO> findPageByHolderName(
+            @Param("status") String status,
+            @Param("afterName") String afterName,
+            @Param("afterId") String afterId,
+            Pageable limit
+    );
+
+    // 🔹 Loads and row-locks all given accounts in one statement. Rows are locked
+    //    in primary-key order, which gives every transfer the same lock order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+
+    // 🔹 Relative balance update used by write-behind persistence (ledger engine).
+    //    Updates nothing (returns 0) rather than take a balance below zero.
+    @Modifying
+    @Query("""
+        UPDATE Account a
+        SET a.balance = a.balance + :delta,
+            a.version = a.version + 1,
+            a.lastUpdated = :now
+        WHERE a.id = :id
+          AND a.balance + :delta >= 0
+    """)
+    int applyBalanceDelta(@Param("id") String id,
+                          @Param("delta") long deltaMinor,
+                          @Param("now") LocalDateTime now);
+
 }
@@ -0,0 +1,17 @@
+package com.bd.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.bd.model.ArchiveSegment;
+
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+
+    List<ArchiveSegment> findAllByOrderByFirstLogIdAsc();
+
+    // 🔹 Highest archived log id: every row up to it is in the archive, none is in the table
+    @Query("SELECT MAX(s.lastLogId) FROM ArchiveSegment s")
+    Long findLastArchivedLogId();
+}
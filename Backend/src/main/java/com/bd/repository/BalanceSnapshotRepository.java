@@ -0,0 +1,37 @@
+package com.bd.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bd.model.BalanceSnapshot;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+
+    // 🔹 Highest log id covered by any checkpoint; null before the first one
+    @Query("SELECT MAX(s.lastLogId) FROM BalanceSnapshot s")
+    Long findLastCheckpoint();
+
+    // 🔹 Nearest snapshots around a point in time: primary-key seeks on (account_id, as_of)
+    @Query("""
+        SELECT s FROM BalanceSnapshot s
+        WHERE s.accountId = :accountId AND s.asOf <= :at
+        ORDER BY s.asOf DESC
+    """)
+    List<BalanceSnapshot> findLatestAtOrBefore(@Param("accountId") String accountId,
+                                               @Param("at") LocalDateTime at,
+                                               Pageable limit);
+
+    @Query("""
+        SELECT s FROM BalanceSnapshot s
+        WHERE s.accountId = :accountId AND s.asOf > :at
+        ORDER BY s.asOf ASC
+    """)
+    List<BalanceSnapshot> findEarliestAfter(@Param("accountId") String accountId,
+                                            @Param("at") LocalDateTime at,
+                                            Pageable limit);
+}
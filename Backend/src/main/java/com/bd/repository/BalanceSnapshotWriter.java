@@ -0,0 +1,95 @@
+package com.bd.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based SQL for the balance snapshot job. Balances are read with a plain
+ * (non-locking) SELECT and written as one JDBC batch, so the job never blocks
+ * transfers on the rows it reads.
+ */
+@Repository
+public class BalanceSnapshotWriter {
+
+    // current balance with every successful transfer created at or after :asOf taken back out;
+    // both sums walk the (account, created_on) indexes from :asOf onwards
+    private static final String SELECT_BALANCES_SQL = """
+        SELECT a.id,
+               a.balance_minor
+                 + COALESCE((SELECT SUM(t.amount_minor) FROM transaction_logs t
+                             WHERE t.from_account_id = a.id AND t.status = 'SUCCESS'
+                               AND t.created_on >= :asOf), 0)
+                 - COALESCE((SELECT SUM(t.amount_minor) FROM transaction_logs t
+                             WHERE t.to_account_id = a.id AND t.status = 'SUCCESS'
+                               AND t.created_on >= :asOf), 0) AS balance_minor
+        FROM accounts a
+        WHERE a.id IN (:ids)
+    """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO balance_snapshots (account_id, as_of, balance_minor, last_log_id)
+        VALUES (:accountId, :asOf, :balance, :lastLogId)
+    """;
+
+    // accounts with a successful transfer in a log id range (a primary-key range scan)
+    private static final String TOUCHED_SQL = """
+        SELECT t.from_account_id FROM transaction_logs t
+        WHERE t.id > :afterId AND t.id <= :upToId AND t.status = 'SUCCESS'
+        UNION
+        SELECT t.to_account_id FROM transaction_logs t
+        WHERE t.id > :afterId AND t.id <= :upToId AND t.status = 'SUCCESS'
+    """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public BalanceSnapshotWriter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Newest log id below {@code idBound}, or 0 when there is none. */
+    public long lastLogIdBefore(long idBound) {
+        Long id = jdbc.queryForObject("SELECT MAX(id) FROM transaction_logs WHERE id < :bound",
+                Map.of("bound", idBound), Long.class);
+        return id == null ? 0 : id;
+    }
+
+    public List<String> findAccountsTouched(long afterLogId, long upToLogId) {
+        return jdbc.queryForList(TOUCHED_SQL,
+                Map.of("afterId", afterLogId, "upToId", upToLogId), String.class);
+    }
+
+    /** Keyset page over all account ids. */
+    public List<String> findAccountIdsAfter(String afterId, int limit) {
+        return jdbc.queryForList("SELECT id FROM accounts WHERE id > :afterId ORDER BY id LIMIT :limit",
+                Map.of("afterId", afterId, "limit", limit), String.class);
+    }
+
+    /**
+     * Records the balance of each account as of {@code asOf}. Must only be called
+     * for a cutoff older than any transfer still in flight.
+     * @return the number of snapshots written
+     */
+    public int snapshot(Collection<String> accountIds, LocalDateTime asOf, long lastLogId) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        Timestamp ts = Timestamp.valueOf(asOf);
+        List<SqlParameterSource> rows = jdbc.query(SELECT_BALANCES_SQL,
+                new MapSqlParameterSource().addValue("asOf", ts).addValue("ids", accountIds),
+                (rs, i) -> new MapSqlParameterSource()
+                        .addValue("accountId", rs.getString(1))
+                        .addValue("asOf", ts)
+                        .addValue("balance", rs.getLong(2))
+                        .addValue("lastLogId", lastLogId));
+        jdbc.batchUpdate(INSERT_SQL, rows.toArray(SqlParameterSource[]::new));
+        return rows.size();
+    }
+}
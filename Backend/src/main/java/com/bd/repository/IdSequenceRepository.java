@@ -0,0 +1,19 @@
+package com.bd.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bd.model.IdSequence;
+
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    // 🔹 Reserve a block: the row stays locked until commit, so blocks never overlap
+    @Modifying
+    @Query("UPDATE IdSequence s SET s.nextValue = s.nextValue + :size WHERE s.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+
+    @Query("SELECT s.nextValue FROM IdSequence s WHERE s.name = :name")
+    long currentValue(@Param("name") String name);
+}
@@ -0,0 +1,45 @@
+package com.bd.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bd.dto.AccountEventDTO;
+import com.bd.model.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 🔹 Relay: events in an id range, oldest first (primary key range scan)
+    @Query("""
+        SELECT new com.bd.dto.AccountEventDTO(e.id, e.accountId, e.type, e.transactionId,
+                                              e.counterpartyId, e.amount, e.balance, e.createdOn)
+        FROM OutboxEvent e
+        WHERE e.id > :afterId AND e.id <= :upToId
+        ORDER BY e.id
+    """)
+    List<AccountEventDTO> findInRange(@Param("afterId") long afterId,
+                                      @Param("upToId") long upToId,
+                                      Pageable limit);
+
+    // 🔹 Resume: one account's events after the client's last event id, up to what the relay has streamed
+    @Query("""
+        SELECT new com.bd.dto.AccountEventDTO(e.id, e.accountId, e.type, e.transactionId,
+                                              e.counterpartyId, e.amount, e.balance, e.createdOn)
+        FROM OutboxEvent e
+        WHERE e.accountId = :accountId AND e.id > :afterId AND e.id <= :upToId
+        ORDER BY e.id
+    """)
+    List<AccountEventDTO> findForAccount(@Param("accountId") String accountId,
+                                         @Param("afterId") long afterId,
+                                         @Param("upToId") long upToId,
+                                         Pageable limit);
+
+    // ids are time-ordered: "older than" is a primary key range
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id < :beforeId")
+    int deleteBefore(@Param("beforeId") long beforeId);
+}
@@ -0,0 +1,71 @@
+package com.bd.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.bd.model.TransactionLog;
+import com.bd.model.id.TimeOrderedIds;
+
+/**
+ * Inserts many transaction_logs rows as a single JDBC batch (one round trip with
+ * rewriteBatchedStatements on MySQL). Joins the surrounding JPA transaction.
+ */
+@Repository
+public class TransactionLogBatchWriter {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO transaction_logs
+            (id, from_account_id, to_account_id, amount_minor, status, failure_reason, idempotency_key, created_on)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private final JdbcTemplate jdbc;
+
+    public TransactionLogBatchWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Ids and creation times already set on a log are kept; missing ones are allocated.
+     * @return the ids, in the same order as {@code logs}
+     */
+    public List<Long> insertAll(List<TransactionLog> logs) {
+        if (logs.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = new ArrayList<>(logs.size());
+        for (TransactionLog t : logs) {
+            ids.add(t.getId() != null ? t.getId() : TimeOrderedIds.next());
+        }
+
+        jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TransactionLog t = logs.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, t.getFromAccountId());
+                ps.setString(3, t.getToAccountId());
+                ps.setLong(4, t.getAmountMinor());
+                ps.setString(5, t.getStatus());
+                ps.setString(6, t.getFailureReason());
+                ps.setString(7, t.getIdempotencyKey());
+                ps.setTimestamp(8, t.getCreatedOn() != null ? Timestamp.valueOf(t.getCreatedOn()) : now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+        return ids;
+    }
+}
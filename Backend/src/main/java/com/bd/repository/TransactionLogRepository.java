@@ -1,18 +1,27 @@
 package com.bd.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.bd.model.TransactionLog;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
 
 public interface TransactionLogRepository extends JpaRepository<TransactionLog, Long> {
 
     Optional<TransactionLog> findByIdempotencyKey(String idempotencyKey);
 
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
     // ✅ CUSTOM JPQL QUERY (MANDATORY REQUIREMENT)
     @Query("""
         SELECT t FROM TransactionLog t
@@ -23,4 +32,135 @@ public interface TransactionLogRepository extends JpaRepository<TransactionLog,
         List<TransactionLog> findTransactionHistory(
             @Param("accountId") String accountId
         );
+
+    // 🔹 Full-history export: rows are pulled from the driver in fetch-size chunks
+    //    (MySQL needs useCursorFetch=true on the URL), never materialised as a List.
+    //    Must be consumed inside a transaction and closed by the caller.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT t FROM TransactionLog t
+        WHERE (t.fromAccountId = :accountId OR t.toAccountId = :accountId)
+          AND t.createdOn >= :fromTime
+          AND t.createdOn <= :toTime
+        ORDER BY t.createdOn ASC, t.id ASC
+    """)
+    Stream<TransactionLog> streamTransactionHistory(
+            @Param("accountId") String accountId,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime
+    );
+
+    // 🔹 Keyset pages: rows strictly "before" (beforeTime, beforeId), newest first.
+    //    Each query walks one of the (account, created_on) indexes, so a page
+    //    costs O(page size) regardless of how much history the account has.
+    @Query("""
+        SELECT t FROM TransactionLog t
+        WHERE t.fromAccountId = :accountId
+          AND (:status IS NULL OR t.status = :status)
+          AND t.createdOn >= :fromTime
+          AND (t.createdOn < :beforeTime
+               OR (t.createdOn = :beforeTime AND t.id < :beforeId))
+        ORDER BY t.createdOn DESC, t.id DESC
+    """)
+    List<TransactionLog> findSentPage(
+            @Param("accountId") String accountId,
+            @Param("status") String status,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") Long beforeId,
+            Pageable limit
+    );
+
+    @Query("""
+        SELECT t FROM TransactionLog t
+        WHERE t.toAccountId = :accountId
+          AND (:status IS NULL OR t.status = :status)
+          AND t.createdOn >= :fromTime
+          AND (t.createdOn < :beforeTime
+               OR (t.createdOn = :beforeTime AND t.id < :beforeId))
+        ORDER BY t.createdOn DESC, t.id DESC
+    """)
+    List<TransactionLog> findReceivedPage(
+            @Param("accountId") String accountId,
+            @Param("status") String status,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") Long beforeId,
+            Pageable limit
+    );
+
+    // 🔹 Successful transfers of one account in [fromTime, toTime), oldest first
+    //    (statements); each query is a range scan of one (account, created_on) index
+    @Query("""
+        SELECT t FROM TransactionLog t
+        WHERE t.fromAccountId = :accountId
+          AND t.status = 'SUCCESS'
+          AND t.createdOn >= :fromTime
+          AND t.createdOn < :toTime
+        ORDER BY t.createdOn ASC, t.id ASC
+    """)
+    List<TransactionLog> findSuccessfulSent(
+            @Param("accountId") String accountId,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime,
+            Pageable limit
+    );
+
+    @Query("""
+        SELECT t FROM TransactionLog t
+        WHERE t.toAccountId = :accountId
+          AND t.status = 'SUCCESS'
+          AND t.createdOn >= :fromTime
+          AND t.createdOn < :toTime
+        ORDER BY t.createdOn ASC, t.id ASC
+    """)
+    List<TransactionLog> findSuccessfulReceived(
+            @Param("accountId") String accountId,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime,
+            Pageable limit
+    );
+
+    // 🔹 Amounts moved by successful transfers in [fromTime, toTime): the balance
+    //    delta between a snapshot and any other point in time. Rows with ids up to
+    //    afterId are left out: the caller counts those from the archive.
+    @Query("""
+        SELECT COALESCE(SUM(t.amount), 0) FROM TransactionLog t
+        WHERE t.fromAccountId = :accountId
+          AND t.status = 'SUCCESS'
+          AND t.createdOn >= :fromTime
+          AND t.createdOn < :toTime
+          AND t.id > :afterId
+    """)
+    long sumSent(@Param("accountId") String accountId,
+                 @Param("fromTime") LocalDateTime fromTime,
+                 @Param("toTime") LocalDateTime toTime,
+                 @Param("afterId") long afterId);
+
+    @Query("""
+        SELECT COALESCE(SUM(t.amount), 0) FROM TransactionLog t
+        WHERE t.toAccountId = :accountId
+          AND t.status = 'SUCCESS'
+          AND t.createdOn >= :fromTime
+          AND t.createdOn < :toTime
+          AND t.id > :afterId
+    """)
+    long sumReceived(@Param("accountId") String accountId,
+                     @Param("fromTime") LocalDateTime fromTime,
+                     @Param("toTime") LocalDateTime toTime,
+                     @Param("afterId") long afterId);
+
+    // 🔹 Archiving: the oldest rows below an id bound, in id order (the caller still
+    //    checks created_on: pre-migration rows have small ids whatever their age),
+    //    then their removal by id range
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM TransactionLog t WHERE t.id < :beforeId ORDER BY t.id")
+    List<TransactionLog> findArchivable(@Param("beforeId") long beforeId, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM TransactionLog t WHERE t.id >= :firstId AND t.id <= :lastId")
+    int deleteIdRange(@Param("firstId") long firstId, @Param("lastId") long lastId);
 }
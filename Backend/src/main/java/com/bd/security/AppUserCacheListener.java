@@ -0,0 +1,33 @@
+package com.bd.security;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.bd.model.AppUser;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link AppUser}: any insert, update (role, password, ...) or
+ * delete evicts the user from the UserDetails cache. Created by Spring through
+ * Hibernate's bean container; the service is injected lazily because the
+ * repository it uses needs the entity manager factory that creates this listener.
+ */
+@Component
+public class AppUserCacheListener {
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    public AppUserCacheListener(@Lazy UserDetailsServiceImpl userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(AppUser user) {
+        userDetailsService.evict(user.getUsername());
+    }
+}
@@ -2,8 +2,12 @@ package com.bd.security;
 
 import java.io.IOException;
 
+import java.util.List;
+
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,10 +23,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final boolean claimsPrincipal;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    /**
+     * @param claimsPrincipal build the principal from the token's subject and role
+     *        claim instead of loading the user (no database round trip; a disabled
+     *        user keeps access until the token expires)
+     */
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   boolean claimsPrincipal) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.claimsPrincipal = claimsPrincipal;
     }
 
     @Override
@@ -34,10 +46,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && jwtUtil.validateToken(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String username = jwtUtil.extractUsername(token);
-            if (username != null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (verified != null) {
+                UserDetails userDetails = principal(verified);
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -47,4 +59,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails principal(VerifiedToken verified) {
+        // tokens issued before the role claim existed still go to the database
+        if (claimsPrincipal && verified.role() != null) {
+            return new User(verified.username(), "",
+                    List.of(new SimpleGrantedAuthority("ROLE_" + verified.role())));
+        }
+        return userDetailsService.loadUserByUsername(verified.username());
+    }
 }
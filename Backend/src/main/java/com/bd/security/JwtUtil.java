@@ -1,53 +1,79 @@
 package com.bd.security;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 @Component
 public class JwtUtil {
 
+    static final String ROLE_CLAIM = "role";
+
     private final Key key;
     private final long expirationMs;
+    // immutable and thread-safe: built once instead of per call
+    private final JwtParser parser;
+    // verified tokens, each evicted at its own exp; repeat requests skip the HMAC check
+    private final Cache<String, VerifiedToken> verified;
 
     public JwtUtil(@Value("${security.jwt.secret}") String secret,
-                   @Value("${security.jwt.expiration-ms}") long expirationMs) {
+                   @Value("${security.jwt.expiration-ms}") long expirationMs,
+                   @Value("${security.jwt.cache.max-size:10000}") long cacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((String token, VerifiedToken v) ->
+                        Duration.ofMillis(Math.max(0, v.expiresAtMillis() - System.currentTimeMillis()))))
+                .build();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(String username, String role) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
                 .setSubject(username)
+                .claim(ROLE_CLAIM, role)
                 .setIssuedAt(now)
                 .setExpiration(exp)
                 .signWith(key)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        try {
-            return Jwts.parserBuilder().setSigningKey(key).build()
-                    .parseClaimsJws(token).getBody().getSubject();
-        } catch (JwtException ex) {
-            return null;
+    /** Parses and verifies the token once; returns null if it is invalid or expired. */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            // the cache evicts at exp, but never trust an entry past it
+            return cached.expiresAtMillis() > System.currentTimeMillis() ? cached : null;
         }
-    }
-
-    public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            VerifiedToken v = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get(ROLE_CLAIM, String.class),
+                    claims.getExpiration().getTime());
+            verified.put(token, v);
+            return v;
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
         }
     }
 }
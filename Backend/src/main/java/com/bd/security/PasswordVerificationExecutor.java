@@ -0,0 +1,96 @@
+package com.bd.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bd.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Small fixed pool for BCrypt work (login checks, hashing on register), so a
+ * burst of logins can occupy at most {@code threads} CPUs instead of every
+ * request thread. At most {@code queue-capacity} more wait; anything beyond
+ * that is shed immediately with {@link TooManyRequestsException} (HTTP 429).
+ */
+@Component
+public class PasswordVerificationExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMs;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordVerificationExecutor(@Value("${security.login.threads:0}") int threads,
+                                        @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                                        @Value("${security.login.timeout-ms:5000}") long timeoutMs) {
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-verify-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Runs the task on the pool and waits for it; runtime exceptions are rethrown as-is. */
+    public <T> T call(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException("Login is busy, please retry");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.password.executor.active", pool, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("security.password.executor.queued", pool, p -> p.getQueue().size())
+                .register(registry);
+        FunctionCounter.builder("security.password.executor.rejected", rejected, AtomicLong::get)
+                .description("Password checks shed with 429")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
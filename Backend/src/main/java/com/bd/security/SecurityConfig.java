@@ -1,5 +1,8 @@
 package com.bd.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,7 +12,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,28 +20,43 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtil jwtUtil;
+    private final boolean claimsPrincipal;
+    private final int bcryptStrength;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil,
+                          @Value("${security.jwt.claims-principal:false}") boolean claimsPrincipal,
+                          @Value("${security.bcrypt.strength:10}") int bcryptStrength) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.claimsPrincipal = claimsPrincipal;
+        this.bcryptStrength = bcryptStrength;
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, claimsPrincipal);
 
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // async re-dispatch of streamed responses (statement export); the
+                // original request was already authenticated by the JWT filter
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/v1/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                // served on the loopback-only management port (management.server.*)
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -62,13 +79,22 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        PasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(bcryptStrength);
+        // one hash at startup shows what the configured cost means on this host
+        encoder.encode("calibration"); // warm-up
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        log.info("BCrypt cost {} takes {} ms per hash", bcryptStrength,
+                (System.nanoTime() - start) / 1_000_000);
+        return encoder;
     }
 
     @Bean
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider prov = new DaoAuthenticationProvider(userDetailsService);
         prov.setPasswordEncoder(passwordEncoder());
+        // rehash on successful login when the stored cost differs from security.bcrypt.strength
+        prov.setUserDetailsPasswordService(userDetailsService);
         return new ProviderManager(prov);
     }
 }
@@ -1,28 +1,96 @@
 package com.bd.security;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.bd.model.AppUser;
 import com.bd.repository.AppUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Loads users for login and JWT requests through a bounded cache keyed by
+ * username. Entries are evicted on any change to an {@link AppUser}
+ * (see {@link AppUserCacheListener}) and otherwise expire after
+ * {@code security.user-cache.ttl}.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService, MeterBinder {
+
+    // what is cached: never the UserDetails itself, whose password is erased after login
+    private record CachedUser(String username, String password, List<GrantedAuthority> authorities) {}
 
     private final AppUserRepository users;
+    private final Cache<String, CachedUser> cache;
 
-    public UserDetailsServiceImpl(AppUserRepository users) { this.users = users; }
+    public UserDetailsServiceImpl(AppUserRepository users,
+                                  @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.user-cache.ttl:10m}") Duration ttl) {
+        this.users = users;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // unknown usernames throw from the loader and are not cached
+        CachedUser u = cache.get(username, this::load);
+        return new User(u.username(), u.password(), u.authorities());
+    }
+
+    /** Stores a re-encoded password after a successful login (cost change). */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        users.findByUsername(user.getUsername()).ifPresent(u -> {
+            u.setPassword(newPassword);
+            users.save(u); // the entity listener evicts the cached entry
+        });
+        return new User(user.getUsername(), newPassword, user.getAuthorities());
+    }
+
+    /** Drop a cached user now and again after the current transaction commits. */
+    public void evict(String username) {
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a concurrent request may reload the old row before the change commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userDetails");
+    }
+
+    private CachedUser load(String username) {
         AppUser u = users.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return new User(u.getUsername(), u.getPassword(), Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + u.getRole())));
+        return new CachedUser(u.getUsername(), u.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + u.getRole())));
     }
 }
@@ -0,0 +1,4 @@
+package com.bd.security;
+
+/** Claims of a JWT whose signature and expiry have been checked. */
+public record VerifiedToken(String username, String role, long expiresAtMillis) {}
@@ -0,0 +1,217 @@
+package com.bd.service;
+
+import java.time.Year;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.model.IdSequence;
+import com.bd.repository.IdSequenceRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Account ids of the form {@code MTSyyyy-nnnnnnnnc}: creation year, an 8-digit
+ * sequence number and a Luhn check digit over year + sequence.
+ *
+ * Sequence numbers come from the {@code id_sequences} counter in blocks of
+ * {@code account.id.block-size}, reserved in a short transaction of their own
+ * and then handed out from memory, so creating an account needs no existence
+ * checks. Each node reserves its own blocks; numbers left in a block at
+ * shutdown are skipped, never reused. Ids are 9 digits after the dash, so they
+ * cannot collide with the older random 8-digit ids.
+ *
+ * The next block is reserved ahead, on a thread of its own, once the current
+ * one is half used. Callers usually hold a pooled connection already: reserving
+ * inline would need a second one, and a burst of sign-ups could exhaust the pool
+ * with every caller waiting for a connection to reserve with. A caller only
+ * waits when a burst outruns the reservation ahead.
+ */
+@Component
+public class AccountIdGenerator {
+
+    static final String SEQUENCE = "account";
+    private static final long MAX_SEQUENCE = 99_999_999L;
+    private static final long RESERVE_WAIT_MS = 10_000;
+
+    private final IdSequenceRepository sequences;
+    private final TransactionTemplate tx;
+    private final long blockSize;
+    private final ExecutorService reserver;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition reserved = lock.newCondition();
+
+    // all guarded by lock
+    private long next;
+    private long blockEnd; // exclusive
+    private long spareStart;
+    private long spareEnd; // exclusive; equal to spareStart when there is no spare block
+    private boolean reserving;
+    private RuntimeException reserveError;
+
+    public AccountIdGenerator(IdSequenceRepository sequences,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${account.id.block-size:100}") long blockSize) {
+        this.sequences = sequences;
+        this.tx = new TransactionTemplate(transactionManager);
+        // the counter row must be released immediately, not at the caller's commit
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        this.reserver = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "account-id-reserver");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // the first block is ready before the first sign-up
+    @EventListener(ApplicationReadyEvent.class)
+    public void reserveAhead() {
+        lock.lock();
+        try {
+            reserveSpare();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String nextId() {
+        long seq;
+        lock.lock();
+        try {
+            while (next >= blockEnd) {
+                if (spareEnd > spareStart) {
+                    next = spareStart;
+                    blockEnd = spareEnd;
+                    spareStart = spareEnd = 0;
+                } else {
+                    awaitSpare();
+                }
+            }
+            seq = next++;
+            if (blockEnd - next <= blockSize / 2) {
+                reserveSpare();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return format(Year.now().getValue(), seq);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reserver.shutdownNow();
+    }
+
+    // under lock: starts reserving the spare block unless it exists or is on its way
+    private void reserveSpare() {
+        if (reserving || spareEnd > spareStart) {
+            return;
+        }
+        reserving = true;
+        reserver.execute(() -> {
+            long end = 0;
+            RuntimeException error = null;
+            try {
+                end = reserveBlock();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                reserving = false;
+                if (error == null) {
+                    spareStart = end - blockSize;
+                    spareEnd = end;
+                } else {
+                    reserveError = error;
+                }
+                reserved.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // under lock: the current block is used up and there is no spare yet
+    private void awaitSpare() {
+        reserveSpare();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RESERVE_WAIT_MS);
+        while (reserving) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Timed out reserving account ids");
+            }
+            try {
+                reserved.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reserving account ids", e);
+            }
+        }
+        if (spareEnd <= spareStart && reserveError != null) {
+            RuntimeException e = reserveError;
+            reserveError = null;
+            throw e;
+        }
+    }
+
+    // runs on the reserver thread; returns the (exclusive) end of the reserved block
+    private long reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long end = tx.execute(s -> {
+                    if (sequences.advance(SEQUENCE, blockSize) == 0) {
+                        // first use: sequence numbers start at 1
+                        sequences.saveAndFlush(new IdSequence(SEQUENCE, 1 + blockSize));
+                    }
+                    return sequences.currentValue(SEQUENCE);
+                });
+                if (end - 1 > MAX_SEQUENCE) {
+                    throw new IllegalStateException("Account id space exhausted");
+                }
+                return end;
+            } catch (DataIntegrityViolationException e) {
+                // another node created the counter row first; advance it instead
+                if (attempt >= 3) throw e;
+            }
+        }
+    }
+
+    static String format(int year, long seq) {
+        String digits = year + pad8(seq);
+        return "MTS" + year + "-" + pad8(seq) + luhn(digits);
+    }
+
+    private static String pad8(long n) {
+        String s = Long.toString(n);
+        return "00000000".substring(s.length()) + s;
+    }
+
+    /** Luhn (mod 10) check digit for a string of decimal digits. */
+    static int luhn(String digits) {
+        int sum = 0;
+        boolean dbl = true; // rightmost payload digit is doubled
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (dbl) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            dbl = !dbl;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
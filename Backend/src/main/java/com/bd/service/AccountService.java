@@ -1,70 +1,106 @@
 package com.bd.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.bd.dto.AccountCursor;
 import com.bd.dto.AccountDTO;
+import com.bd.dto.AccountListItemDTO;
+import com.bd.dto.AccountPageDTO;
 import com.bd.model.Account;
+import com.bd.model.Money;
 import com.bd.repository.AccountRepository;
 
 @Service
 public class AccountService implements IAccountService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final AccountRepository accountRepo;
+    private final ActivitySummaryService summaryService;
+    private final AccountIdGenerator idGenerator;
+    private final BalanceCache balanceCache;
 
-    public AccountService(AccountRepository accountRepo) {
+    public AccountService(AccountRepository accountRepo,
+                          ActivitySummaryService summaryService,
+                          AccountIdGenerator idGenerator,
+                          BalanceCache balanceCache) {
         this.accountRepo = accountRepo;
+        this.summaryService = summaryService;
+        this.idGenerator = idGenerator;
+        this.balanceCache = balanceCache;
     }
 
     @Override
+    @Transactional
     public AccountDTO createAccount(AccountDTO dto) {
         Account account = AccountDTO.fromDTO(dto);
         if (account.getId() == null || account.getId().isBlank()) {
-            account.setId(generateUniqueAccountId());
+            account.setId(idGenerator.nextId());
         }
         Account saved = accountRepo.save(account);
+        summaryService.initialize(saved.getId());
         return AccountDTO.toDTO(saved);
     }
 
-    private final java.security.SecureRandom rnd = new java.security.SecureRandom();
-
-    private String generateUniqueAccountId() {
-        String candidate;
-        int attempts = 0;
-        do {
-            String year = String.valueOf(java.time.LocalDate.now().getYear());
-            int part = 10000000 + rnd.nextInt(90000000);
-            candidate = "MTS" + year + "-" + part;
-            attempts++;
-            if (attempts > 20) break;
-        } while (accountRepo.existsById(candidate));
-        return candidate;
-    }
-
     @Override
+    @Transactional(readOnly = true)
     public AccountDTO getAccountById(String id) {
         Account account = accountRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found with id " + id));
         return AccountDTO.toDTO(account);
     }
 
+    // no transaction here: a cache hit needs no connection, a miss opens its own
     @Override
-    public Double getBalance(String id) {
-        Account account = accountRepo.findById(id)
+    public Money getBalance(String id) {
+        // cached and version-checked; refreshed after every committed transfer
+        return balanceCache.balance(id)
                 .orElseThrow(() -> new RuntimeException("Account not found with id " + id));
-        return account.getBalance();
     }
 
     @Override
-    public List<AccountDTO> getAllAccounts() {
-        return accountRepo.findAll()
-                .stream()
-                .map(AccountDTO::toDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public AccountPageDTO listAccounts(String status, String sort, String cursor, int size) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        String sortBy = sort == null || sort.isBlank() ? "id" : sort;
+        String statusFilter = status == null || status.isBlank() ? null : status.toUpperCase();
+
+        String afterKey = "";
+        String afterId = "";
+        if (cursor != null && !cursor.isBlank()) {
+            AccountCursor c = AccountCursor.decode(cursor);
+            if (!c.sort().equals(sortBy)) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+            afterKey = c.key();
+            afterId = c.id();
+        }
+
+        // fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<AccountListItemDTO> rows = switch (sortBy) {
+            case "id" -> accountRepo.findPageById(statusFilter, afterId, limit);
+            case "holderName" -> accountRepo.findPageByHolderName(statusFilter, afterKey, afterId, limit);
+            default -> throw new IllegalArgumentException("Sort must be id or holderName");
+        };
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AccountListItemDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AccountListItemDTO last = page.get(page.size() - 1);
+            String key = sortBy.equals("holderName") ? last.holderName() : last.id();
+            nextCursor = new AccountCursor(sortBy, key, last.id()).encode();
+        }
+        return new AccountPageDTO(page, nextCursor, hasMore);
     }
     @Override
+    @Transactional(readOnly = true)
     public boolean accountExists(String id) {
         return accountRepo.existsById(id);
     }
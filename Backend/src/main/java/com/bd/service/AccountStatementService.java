@@ -0,0 +1,89 @@
+package com.bd.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bd.archive.LogArchive;
+import com.bd.dto.StatementDTO;
+import com.bd.dto.StatementEntryDTO;
+import com.bd.model.Money;
+import com.bd.model.OutboxEvent;
+import com.bd.model.TransactionLog;
+import com.bd.repository.TransactionLogRepository;
+
+/**
+ * Statements with opening, closing and running balances. The opening balance
+ * comes from the nearest balance snapshot ({@link BalanceSnapshotService}), so
+ * only the period's own rows are read, never the account's earlier history.
+ * Periods with more than {@code statement.max-entries} transfers are refused;
+ * the streaming export has no such limit.
+ */
+@Service
+public class AccountStatementService {
+
+    private static final Comparator<TransactionLog> OLDEST_FIRST =
+            Comparator.comparing(TransactionLog::getCreatedOn).thenComparing(TransactionLog::getId);
+
+    private final BalanceSnapshotService snapshotService;
+    private final TransactionLogRepository logRepo;
+    private final LogArchive archive;
+    private final int maxEntries;
+
+    public AccountStatementService(BalanceSnapshotService snapshotService,
+                                   TransactionLogRepository logRepo,
+                                   LogArchive archive,
+                                   @Value("${statement.max-entries:1000}") int maxEntries) {
+        this.snapshotService = snapshotService;
+        this.logRepo = logRepo;
+        this.archive = archive;
+        this.maxEntries = maxEntries;
+    }
+
+    // one read-only transaction, so the opening balance and the rows come from the same view
+    @Transactional(readOnly = true)
+    public StatementDTO statement(String accountId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("Statement start must be before its end");
+        }
+        Money opening = snapshotService.balanceAt(accountId, from);
+
+        // one more than allowed from each source tells us whether the period is too long
+        PageRequest limit = PageRequest.of(0, maxEntries + 1);
+        List<TransactionLog> rows = new ArrayList<>(logRepo.findSuccessfulSent(accountId, from, end, limit));
+        rows.addAll(logRepo.findSuccessfulReceived(accountId, from, end, limit));
+        LogArchive.View archived = archive.view();
+        rows.removeIf(archived::covers);
+        archived.stream(accountId, from, end)
+                .filter(t -> t.getCreatedOn().isBefore(end) && "SUCCESS".equals(t.getStatus()))
+                .limit(maxEntries + 1)
+                .forEach(rows::add);
+        if (rows.size() > maxEntries) {
+            throw new IllegalArgumentException("More than " + maxEntries
+                    + " transactions in this period; use a shorter period or the history export");
+        }
+        rows.sort(OLDEST_FIRST);
+
+        List<StatementEntryDTO> entries = new ArrayList<>(rows.size());
+        Money running = opening;
+        for (TransactionLog t : rows) {
+            boolean debit = accountId.equals(t.getFromAccountId());
+            running = debit ? running.minus(t.getAmount()) : running.plus(t.getAmount());
+            entries.add(new StatementEntryDTO(
+                    t.getId(),
+                    t.getCreatedOn(),
+                    debit ? OutboxEvent.DEBIT : OutboxEvent.CREDIT,
+                    debit ? t.getToAccountId() : t.getFromAccountId(),
+                    t.getAmount(),
+                    running));
+        }
+        return new StatementDTO(accountId, from, end, opening, running, entries);
+    }
+}
@@ -0,0 +1,146 @@
+package com.bd.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.AccountActivitySummaryDTO;
+import com.bd.exception.AccountNotFoundException;
+import com.bd.model.AccountActivitySummary;
+import com.bd.model.TransactionLog;
+import com.bd.repository.AccountActivitySummaryRepository;
+
+/**
+ * Maintains {@link AccountActivitySummary} rows. Updates join the caller's
+ * transaction, so a summary update commits or rolls back together with its log row.
+ *
+ * Accounts created before summaries existed are seeded from their logs on first
+ * use, in a short transaction of its own: when two transfers seed the same account
+ * at once, the loser's duplicate key fails only that seed, never the transfer, and
+ * both then apply their delta to the winner's row.
+ */
+@Service
+public class ActivitySummaryService {
+
+    private final AccountActivitySummaryRepository summaryRepo;
+    private final TransactionTemplate seedTx;
+
+    public ActivitySummaryService(AccountActivitySummaryRepository summaryRepo,
+                                  PlatformTransactionManager transactionManager) {
+        this.summaryRepo = summaryRepo;
+        this.seedTx = new TransactionTemplate(transactionManager);
+        this.seedTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Create the empty summary row for a newly created account. */
+    @Transactional
+    public void initialize(String accountId) {
+        if (!summaryRepo.existsById(accountId)) {
+            summaryRepo.save(AccountActivitySummary.empty(accountId));
+        }
+    }
+
+    /**
+     * Fold one transaction log into the summaries of both accounts.
+     * Must be called BEFORE the log row itself is inserted: a missing summary is
+     * seeded from the existing logs, and the new row must not be counted twice.
+     */
+    @Transactional
+    public void record(TransactionLog log) {
+        recordAll(List.of(log));
+    }
+
+    /**
+     * Batch form of {@link #record}: one UPDATE per distinct account, issued in
+     * account-id order so concurrent writers always lock summary rows in the same order.
+     */
+    @Transactional
+    public void recordAll(Iterable<TransactionLog> logs) {
+        Map<String, Delta> deltas = new TreeMap<>();
+        for (TransactionLog log : logs) {
+            boolean success = "SUCCESS".equals(log.getStatus());
+            boolean self = log.getFromAccountId().equals(log.getToAccountId());
+            long amount = success ? log.getAmountMinor() : 0L;
+
+            Delta from = deltas.computeIfAbsent(log.getFromAccountId(), id -> new Delta());
+            from.count(success);
+            from.sent++;
+            from.debited += amount;
+            if (self) {
+                from.received++;
+                from.credited += amount;
+            } else {
+                Delta to = deltas.computeIfAbsent(log.getToAccountId(), id -> new Delta());
+                to.count(success);
+                to.received++;
+                to.credited += amount;
+            }
+        }
+        deltas.forEach(this::apply);
+    }
+
+    /**
+     * Seeds the missing summaries of these accounts from their logs. Called before
+     * log rows are archived, after which they can no longer be aggregated.
+     */
+    @Transactional
+    public void ensureSeeded(Collection<String> accountIds) {
+        Set<String> missing = new HashSet<>(accountIds);
+        for (AccountActivitySummary existing : summaryRepo.findAllById(accountIds)) {
+            missing.remove(existing.getAccountId());
+        }
+        missing.forEach(this::seed);
+    }
+
+    // no transaction of its own: a snapshot taken before seeding would not see the seeded row
+    public AccountActivitySummaryDTO getSummary(String accountId) {
+        AccountActivitySummary summary = summaryRepo.findById(accountId)
+                .orElseGet(() -> {
+                    seed(accountId);
+                    return summaryRepo.findById(accountId)
+                            .orElseThrow(() -> new AccountNotFoundException(accountId));
+                });
+        return AccountActivitySummaryDTO.toDTO(summary);
+    }
+
+    private void apply(String accountId, Delta d) {
+        int updated = summaryRepo.applyDelta(accountId, d.sent, d.received, d.success, d.failed,
+                d.debited, d.credited, LocalDateTime.now());
+        if (updated == 0) {
+            // account predates summaries: seed from its committed history, then apply these
+            // rows (the UPDATE reads the latest committed row, not the caller's snapshot)
+            seed(accountId);
+            summaryRepo.applyDelta(accountId, d.sent, d.received, d.success, d.failed,
+                    d.debited, d.credited, LocalDateTime.now());
+        }
+    }
+
+    // insert-if-absent: inserts nothing for unknown accounts, loses quietly to a concurrent seed
+    private void seed(String accountId) {
+        try {
+            seedTx.executeWithoutResult(s -> summaryRepo.seedFromLogs(accountId, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // seeded by another transaction in the meantime
+        }
+    }
+
+    private static final class Delta {
+        long sent, received, success, failed;
+        long debited, credited; // minor units
+
+        void count(boolean ok) {
+            if (ok) success++; else failed++;
+        }
+    }
+}
@@ -3,18 +3,22 @@ package com.bd.service;
 
 import com.bd.dto.LoginRequest;
 import com.bd.dto.LoginResponse;
+import com.bd.exception.TooManyRequestsException;
 import com.bd.model.Account;
 import com.bd.model.AppUser;
+import com.bd.model.Money;
 import com.bd.repository.AccountRepository;
 import com.bd.repository.AppUserRepository;
 import com.bd.security.JwtUtil;
+import com.bd.security.PasswordVerificationExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
-import java.time.LocalDate;
 import java.util.Optional;
 
 @Service
@@ -25,17 +29,29 @@ public class AuthService {
     private final AuthenticationManager authManager;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final ActivitySummaryService summaryService;
+    private final PasswordVerificationExecutor passwordVerifier;
+    private final AccountIdGenerator idGenerator;
+    private final TransactionTemplate tx;
 
     public AuthService(AccountRepository accounts,
                        AppUserRepository users,
                        AuthenticationManager authManager,
                        JwtUtil jwtUtil,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       ActivitySummaryService summaryService,
+                       PasswordVerificationExecutor passwordVerifier,
+                       AccountIdGenerator idGenerator,
+                       PlatformTransactionManager transactionManager) {
         this.accounts = accounts;
         this.users = users;
         this.authManager = authManager;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.summaryService = summaryService;
+        this.passwordVerifier = passwordVerifier;
+        this.idGenerator = idGenerator;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     public Optional<LoginResponse> login(LoginRequest req) {
@@ -43,8 +59,12 @@ public class AuthService {
             return Optional.empty();
         }
 
+        // 🔹 BCrypt runs on the bounded password pool, never on the request thread
         try {
-            authManager.authenticate(new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword()));
+            passwordVerifier.call(() -> authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())));
+        } catch (TooManyRequestsException ex) {
+            throw ex;
         } catch (Exception ex) {
             return Optional.empty();
         }
@@ -52,7 +72,7 @@ public class AuthService {
         AppUser u = users.findByUsername(req.getUsername()).orElse(null);
         if (u == null) return Optional.empty();
 
-        String token = jwtUtil.generateToken(u.getUsername());
+        String token = jwtUtil.generateToken(u.getUsername(), u.getRole());
 
         String accountId = u.getAccountId();
         String displayName = u.getDisplayName();
@@ -70,24 +90,41 @@ public class AuthService {
         if (!isStrongPassword(rawPassword)) return Optional.empty();
         if (users.findByUsername(username).isPresent()) return Optional.empty();
 
+        // 🔹 BCrypt and the id come before the transaction: no pooled connection is held meanwhile
+        String passwordHash = passwordVerifier.call(() -> passwordEncoder.encode(rawPassword));
+        String accountId = idGenerator.nextId();
+
+        AppUser u;
+        try {
+            u = tx.execute(s -> createUser(username, passwordHash, holderName, accountId));
+        } catch (DataIntegrityViolationException ex) {
+            // the username was taken between the check above and the insert
+            return Optional.empty();
+        }
+
+        String token = jwtUtil.generateToken(u.getUsername(), u.getRole());
+        return Optional.of(new LoginResponse(true, token, new LoginResponse.UserInfo(accountId, holderName)));
+    }
+
+    // runs in one transaction: the account and its user are created together or not at all
+    private AppUser createUser(String username, String passwordHash, String holderName, String accountId) {
         // Create bank Account with generated string id
         Account acc = new Account();
-        acc.setId(generateUniqueAccountId());
+        acc.setId(accountId);
         acc.setHolderName(holderName);
-        acc.setBalance(0.0);
+        acc.setBalance(Money.ZERO);
         acc.setStatus("ACTIVE");
         Account saved = accounts.save(acc);
+        summaryService.initialize(saved.getId());
 
         // Create AppUser
         AppUser u = new AppUser();
         u.setUsername(username);
-        u.setPassword(passwordEncoder.encode(rawPassword));
+        u.setPassword(passwordHash);
         u.setAccountId(saved.getId());
         u.setDisplayName(holderName);
-        users.save(u);
-
-        String token = jwtUtil.generateToken(u.getUsername());
-        return Optional.of(new LoginResponse(true, token, new LoginResponse.UserInfo(saved.getId(), holderName)));
+        // flushed here, so a duplicate username fails inside the transaction
+        return users.saveAndFlush(u);
     }
 
     private boolean isStrongPassword(String pwd) {
@@ -99,19 +136,4 @@ public class AuthService {
         if (!hasSymbol) return false;
         return true;
     }
-
-    private final SecureRandom rnd = new SecureRandom();
-
-    private String generateUniqueAccountId() {
-        String candidate;
-        int attempts = 0;
-        do {
-            String year = String.valueOf(LocalDate.now().getYear());
-            int part = 10000000 + rnd.nextInt(90000000);
-            candidate = "MTS" + year + "-" + part;
-            attempts++;
-            if (attempts > 20) break;
-        } while (accounts.existsById(candidate));
-        return candidate;
-    }
 }
\ No newline at end of file
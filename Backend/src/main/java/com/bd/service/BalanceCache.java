@@ -0,0 +1,118 @@
+package com.bd.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.datasource.ReadConsistency;
+import com.bd.dto.AccountBalanceDTO;
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of account balances, keyed by account id and stamped with
+ * the row's {@code version}.
+ *
+ * Every path that changes a balance publishes the committed (balance, version)
+ * from an after-commit hook, and an entry is only ever replaced by one with a
+ * higher version. So a reader that loaded a row just before a transfer committed
+ * cannot overwrite the newer value, and once a transfer has committed on this node
+ * no read here returns an older balance. Changes made outside this application
+ * are picked up when the entry expires ({@code account.balance-cache.ttl}).
+ *
+ * Hits need no transaction; only a miss opens a short read-only one for its
+ * projection query. Misses read the primary even when a replica is configured:
+ * a lagging replica row would be cached and served in place of a newer commit.
+ */
+@Component
+public class BalanceCache implements MeterBinder {
+
+    private final AccountRepository accountRepo;
+    private final TransactionTemplate readTx;
+    private final Cache<String, AccountBalanceDTO> cache;
+
+    public BalanceCache(AccountRepository accountRepo,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${account.balance-cache.max-size:100000}") long maxSize,
+                        @Value("${account.balance-cache.ttl:5m}") Duration ttl) {
+        this.accountRepo = accountRepo;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /** Current balance, from the cache or one projection query; empty if the account does not exist. */
+    public Optional<Money> balance(String accountId) {
+        AccountBalanceDTO cached = cache.getIfPresent(accountId);
+        if (cached == null) {
+            // not cache.get(loader): a loader result would bypass the version check
+            cached = ReadConsistency.onPrimary(() -> readTx.execute(s -> accountRepo.findBalanceById(accountId)))
+                    .map(this::offer).orElse(null);
+        }
+        return Optional.ofNullable(cached).map(b -> Money.ofMinor(b.balanceMinor()));
+    }
+
+    /**
+     * Publishes the balances of these managed accounts once the current transaction
+     * commits. Their versions are read at that point, i.e. after the flush bumped them.
+     */
+    public void updateAfterCommit(Collection<Account> accounts) {
+        List<Account> changed = List.copyOf(accounts);
+        afterCommit(() -> {
+            for (Account a : changed) {
+                Integer version = a.getVersion();
+                offer(new AccountBalanceDTO(a.getId(), a.getBalance().minor(), version));
+            }
+        });
+    }
+
+    /** Publishes balances read inside the current transaction once it commits. */
+    public void putAfterCommit(Collection<AccountBalanceDTO> balances) {
+        List<AccountBalanceDTO> committed = new ArrayList<>(balances);
+        afterCommit(() -> committed.forEach(this::offer));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "accountBalance");
+    }
+
+    // keeps whichever of the cached and offered values has the higher version
+    private AccountBalanceDTO offer(AccountBalanceDTO balance) {
+        return cache.asMap().merge(balance.id(), balance,
+                (current, offered) -> offered.version() > current.version() ? offered : current);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
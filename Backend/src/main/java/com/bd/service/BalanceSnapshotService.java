@@ -0,0 +1,143 @@
+package com.bd.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.archive.LogArchive;
+import com.bd.exception.AccountNotFoundException;
+import com.bd.model.BalanceSnapshot;
+import com.bd.model.Money;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.BalanceSnapshotRepository;
+import com.bd.repository.BalanceSnapshotWriter;
+import com.bd.repository.TransactionLogRepository;
+
+/**
+ * Point-in-time balances. A scheduled job records, at each checkpoint, the
+ * balance of every account that had a successful transfer since the previous
+ * checkpoint (every account on the first run). The balance at any time is then
+ * the nearest snapshot plus the log rows in between, so the cost of a lookup
+ * depends on the activity since that snapshot, not on the account's age.
+ *
+ * Checkpoints lag the clock by {@code snapshot.settle}: a transfer whose log row
+ * is stamped before the cutoff but has not committed yet would otherwise be
+ * missing from the snapshot. Balances are assumed to change only through
+ * transfers; an account's starting balance is carried by its first snapshot.
+ */
+@Service
+public class BalanceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BalanceSnapshotRepository snapshotRepo;
+    private final BalanceSnapshotWriter writer;
+    private final TransactionLogRepository logRepo;
+    private final AccountRepository accountRepo;
+    private final LogArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settle;
+    private final int chunkSize;
+
+    public BalanceSnapshotService(BalanceSnapshotRepository snapshotRepo,
+                                  BalanceSnapshotWriter writer,
+                                  TransactionLogRepository logRepo,
+                                  AccountRepository accountRepo,
+                                  LogArchive archive,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${snapshot.settle:1m}") Duration settle,
+                                  @Value("${snapshot.chunk-size:500}") int chunkSize) {
+        this.snapshotRepo = snapshotRepo;
+        this.writer = writer;
+        this.logRepo = logRepo;
+        this.accountRepo = accountRepo;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settle = settle;
+        this.chunkSize = chunkSize;
+    }
+
+    // 🔹 Checkpoint: snapshot the accounts touched since the previous one, a chunk per transaction
+    @Scheduled(fixedDelayString = "${snapshot.interval-ms:3600000}",
+               initialDelayString = "${snapshot.initial-delay-ms:60000}")
+    public void takeSnapshots() {
+        LocalDateTime asOf = LocalDateTime.now().minus(settle).truncatedTo(ChronoUnit.SECONDS);
+        long upTo = writer.lastLogIdBefore(
+                TimeOrderedIds.firstIdAt(asOf.atZone(ZoneId.systemDefault()).toInstant()));
+        Long previous = snapshotRepo.findLastCheckpoint();
+
+        int written = 0;
+        if (previous == null) {
+            String after = "";
+            List<String> ids;
+            while (!(ids = writer.findAccountIdsAfter(after, chunkSize)).isEmpty()) {
+                written += snapshotChunk(ids, asOf, upTo);
+                after = ids.get(ids.size() - 1);
+            }
+        } else if (upTo > previous) {
+            List<String> touched = writer.findAccountsTouched(previous, upTo);
+            for (int i = 0; i < touched.size(); i += chunkSize) {
+                written += snapshotChunk(touched.subList(i, Math.min(i + chunkSize, touched.size())), asOf, upTo);
+            }
+        }
+        if (written > 0) {
+            log.info("Balance snapshot as of {}: {} accounts (logs up to id {})", asOf, written, upTo);
+        }
+    }
+
+    /**
+     * Balance of an account at {@code at}: every successful transfer created before
+     * it. Uses the nearest earlier snapshot and rolls forward; before the first
+     * snapshot it rolls back from the next one (or from the current balance).
+     */
+    @Transactional(readOnly = true)
+    public Money balanceAt(String accountId, LocalDateTime at) {
+        List<BalanceSnapshot> before = snapshotRepo.findLatestAtOrBefore(accountId, at, FIRST);
+        if (!before.isEmpty()) {
+            BalanceSnapshot s = before.get(0);
+            return s.getBalance().plus(netChange(accountId, s.getAsOf(), at));
+        }
+        List<BalanceSnapshot> after = snapshotRepo.findEarliestAfter(accountId, at, FIRST);
+        if (!after.isEmpty()) {
+            BalanceSnapshot s = after.get(0);
+            return s.getBalance().minus(netChange(accountId, at, s.getAsOf()));
+        }
+        long current = accountRepo.findBalanceById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId))
+                .balanceMinor();
+        return Money.ofMinor(current).minus(netChange(accountId, at, MAX_TIME));
+    }
+
+    private int snapshotChunk(List<String> accountIds, LocalDateTime asOf, long upTo) {
+        Integer n = transactionTemplate.execute(s -> writer.snapshot(accountIds, asOf, upTo));
+        return n == null ? 0 : n;
+    }
+
+    // net effect of successful transfers created in [from, to), archived ones included
+    private Money netChange(String accountId, LocalDateTime from, LocalDateTime to) {
+        LogArchive.View archived = archive.view();
+        long after = archived.archivedUpTo();
+        long net = logRepo.sumReceived(accountId, from, to, after) - logRepo.sumSent(accountId, from, to, after);
+        net += archived.stream(accountId, from, to)
+                .filter(t -> t.getCreatedOn().isBefore(to) && "SUCCESS".equals(t.getStatus()))
+                .mapToLong(t -> accountId.equals(t.getToAccountId()) ? t.getAmountMinor() : -t.getAmountMinor())
+                .sum();
+        return Money.ofMinor(net);
+    }
+}
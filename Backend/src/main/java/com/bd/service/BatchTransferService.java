@@ -0,0 +1,241 @@
+package com.bd.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.BatchTransferResultDTO;
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.model.OutboxEvent;
+import com.bd.model.Rejection;
+import com.bd.model.TransactionLog;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.OutboxEventRepository;
+import com.bd.repository.TransactionLogBatchWriter;
+
+/**
+ * Applies many transfers in chunked transactions. Per chunk: idempotency
+ * replay from {@link IdempotencyService}, one SELECT ... FOR UPDATE for every account in the chunk (id order),
+ * in-memory validation per item, one JDBC batch for all log rows, and batched
+ * balance updates on commit.
+ *
+ * A rejected item only produces a FAILED result; its siblings still commit.
+ * If a chunk fails as a whole (lock timeout, constraint race, ...), that chunk
+ * is replayed item by item through {@link ITransferService#transfer}.
+ */
+@Service
+public class BatchTransferService {
+
+    private final AccountRepository accountRepo;
+    private final TransactionLogBatchWriter logWriter;
+    private final OutboxEventRepository outboxRepo;
+    private final ActivitySummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceCache balanceCache;
+    private final ITransferService transferService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+    private final boolean ledgerEngine;
+
+    public BatchTransferService(AccountRepository accountRepo,
+                                TransactionLogBatchWriter logWriter,
+                                OutboxEventRepository outboxRepo,
+                                ActivitySummaryService summaryService,
+                                IdempotencyService idempotencyService,
+                                BalanceCache balanceCache,
+                                ITransferService transferService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${transfer.batch.chunk-size:200}") int chunkSize,
+                                @Value("${transfer.batch.max-items:10000}") int maxItems,
+                                @Value("${transfer.engine:jpa}") String engine) {
+        this.accountRepo = accountRepo;
+        this.logWriter = logWriter;
+        this.outboxRepo = outboxRepo;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.balanceCache = balanceCache;
+        this.transferService = transferService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxItems = maxItems;
+        this.ledgerEngine = "ledger".equalsIgnoreCase(engine);
+    }
+
+    public List<BatchTransferResultDTO> transferBatch(List<TransferRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("Batch may contain at most " + maxItems + " transfers");
+        }
+
+        List<BatchTransferResultDTO> results = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            List<TransferRequestDTO> chunk = requests.subList(start, Math.min(start + chunkSize, requests.size()));
+            if (ledgerEngine) {
+                // the ledger owns balances in memory; never write them behind its back
+                results.addAll(oneByOne(chunk, start));
+                continue;
+            }
+            try {
+                final int offset = start;
+                results.addAll(transactionTemplate.execute(status -> applyChunk(chunk, offset)));
+            } catch (RuntimeException e) {
+                results.addAll(oneByOne(chunk, start));
+            }
+        }
+        return results;
+    }
+
+    private List<BatchTransferResultDTO> applyChunk(List<TransferRequestDTO> chunk, int offset) {
+        // 🔹 Idempotency: keys seen before replay their stored response
+        Map<String, TransferResponseDTO> replays = new HashMap<>();
+        Set<String> ids = new TreeSet<>();
+        for (TransferRequestDTO r : chunk) {
+            String key = r.getIdempotencyKey();
+            if (key != null && !key.isBlank() && !replays.containsKey(key)) {
+                idempotencyService.lookup(key).ifPresent(resp -> replays.put(key, resp));
+            }
+            if (r.getFromAccountId() != null) ids.add(r.getFromAccountId());
+            if (r.getToAccountId() != null) ids.add(r.getToAccountId());
+        }
+        Set<String> usedKeys = new HashSet<>(replays.keySet());
+
+        // 🔹 Lock every account in the chunk at once, in id order
+        Map<String, Account> accounts = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Account a : accountRepo.findAllByIdForUpdate(ids)) {
+                accounts.put(a.getId(), a);
+            }
+        }
+
+        BatchTransferResultDTO[] results = new BatchTransferResultDTO[chunk.size()];
+        List<TransactionLog> logs = new ArrayList<>();
+        List<Integer> logPositions = new ArrayList<>();
+        List<OutboxEvent> events = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequestDTO r = chunk.get(i);
+            int index = offset + i;
+            String key = r.getIdempotencyKey();
+
+            if (key == null || key.isBlank()) {
+                TransferResponseDTO missing = TransferService.MISSING_IDEMPOTENCY_KEY;
+                results[i] = new BatchTransferResultDTO(index, key, null, missing.getStatus(), missing.getMessage());
+                continue;
+            }
+            TransferResponseDTO replay = replays.get(key);
+            if (replay != null) {
+                results[i] = new BatchTransferResultDTO(
+                        index, key, replay.getTransactionId(), replay.getStatus(), replay.getMessage());
+                continue;
+            }
+            if (!usedKeys.add(key)) {
+                // repeated inside this batch
+                results[i] = new BatchTransferResultDTO(index, key, null, "FAILED", "Duplicate transfer request");
+                continue;
+            }
+            if (r.getAmount() == null) {
+                results[i] = new BatchTransferResultDTO(index, key, null, "FAILED", Rejection.NON_POSITIVE_DEBIT.message());
+                continue;
+            }
+            Account from = accounts.get(r.getFromAccountId());
+            if (from == null) {
+                results[i] = new BatchTransferResultDTO(index, key, null, "FAILED", Rejection.FROM_ACCOUNT_NOT_FOUND.message());
+                continue;
+            }
+            Account to = accounts.get(r.getToAccountId());
+            if (to == null) {
+                results[i] = new BatchTransferResultDTO(index, key, null, "FAILED", Rejection.TO_ACCOUNT_NOT_FOUND.message());
+                continue;
+            }
+
+            TransactionLog log = newLog(r);
+            String failure = apply(from, to, r.getAmount());
+            log.setStatus(failure == null ? "SUCCESS" : "FAILED");
+            log.setFailureReason(failure);
+            if (failure == null) {
+                // id allocated now so the events can reference it; balances as of this item
+                log.setId(TimeOrderedIds.next());
+                events.add(OutboxEvent.debit(log, from.getBalance().minor()));
+                events.add(OutboxEvent.credit(log, to.getBalance().minor()));
+            }
+            logs.add(log);
+            logPositions.add(i);
+        }
+
+        // 🔹 One summary update per account, then one JDBC batch for every log row
+        summaryService.recordAll(logs);
+        List<Long> logIds = logWriter.insertAll(logs);
+        outboxRepo.saveAll(events);
+
+        Map<String, TransferResponseDTO> responses = new HashMap<>();
+        for (int j = 0; j < logs.size(); j++) {
+            int i = logPositions.get(j);
+            TransactionLog log = logs.get(j);
+            boolean ok = "SUCCESS".equals(log.getStatus());
+            TransferResponseDTO resp = new TransferResponseDTO(
+                    logIds.get(j),
+                    log.getStatus(),
+                    ok ? "Transfer completed successfully" : log.getFailureReason());
+            responses.put(log.getIdempotencyKey(), resp);
+            results[i] = new BatchTransferResultDTO(
+                    offset + i, log.getIdempotencyKey(), resp.getTransactionId(), resp.getStatus(), resp.getMessage());
+        }
+        idempotencyService.rememberAll(responses);
+        balanceCache.updateAfterCommit(accounts.values());
+        return List.of(results);
+    }
+
+    /** Applies one item to the locked, managed accounts; returns the rejection reason or null. */
+    private static String apply(Account from, Account to, Money amount) {
+        if (from.getId().equals(to.getId())) {
+            return Rejection.SAME_ACCOUNT.message();
+        }
+        // both legs checked before either is applied: a rejected item changes nothing
+        Rejection rejection = from.checkDebit(amount);
+        if (rejection == null) {
+            rejection = to.checkCredit(amount);
+        }
+        if (rejection != null) {
+            return rejection.message();
+        }
+        from.debit(amount);
+        to.credit(amount);
+        return null;
+    }
+
+    private List<BatchTransferResultDTO> oneByOne(List<TransferRequestDTO> chunk, int offset) {
+        List<BatchTransferResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequestDTO r = chunk.get(i);
+            TransferResponseDTO resp = transferService.transfer(r);
+            results.add(new BatchTransferResultDTO(
+                    offset + i, r.getIdempotencyKey(), resp.getTransactionId(), resp.getStatus(), resp.getMessage()));
+        }
+        return results;
+    }
+
+    private static TransactionLog newLog(TransferRequestDTO request) {
+        TransactionLog log = new TransactionLog();
+        log.setFromAccountId(request.getFromAccountId());
+        log.setToAccountId(request.getToAccountId());
+        log.setAmount(request.getAmount());
+        log.setIdempotencyKey(request.getIdempotencyKey());
+        return log;
+    }
+}
@@ -1,22 +1,181 @@
 package com.bd.service;
 
-import com.bd.model.TransactionLog;
-import com.bd.repository.TransactionLogRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.TransactionLog;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.TransactionLogBatchWriter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * Write-behind for FAILED transaction logs. Callers never wait for the insert:
+ * the log gets its id up front (so the response can carry it) and goes onto a
+ * bounded queue; a background thread writes queued logs as one JDBC batch per
+ * transaction, together with their summary deltas and idempotency records.
+ * Callers make the response replayable themselves before returning
+ * ({@link IdempotencyService#rememberPending}); this class only persists it.
+ *
+ * When the queue is full, {@code transfer.failure-log.overflow} decides:
+ * DROP (default) discards the log and counts it; CALLER_RUNS writes it on the
+ * calling thread in its own transaction. Queued logs are flushed on shutdown.
+ */
 @Service
-public class FailureLogService {
+public class FailureLogService implements MeterBinder {
+
+    public enum OverflowPolicy { DROP, CALLER_RUNS }
+
+    private static final Logger log = LoggerFactory.getLogger(FailureLogService.class);
+
+    private final TransactionLogBatchWriter logWriter;
+    private final ActivitySummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate tx;
+    private final BlockingQueue<TransactionLog> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflow;
+    private final Thread thread;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public FailureLogService(TransactionLogBatchWriter logWriter,
+                             ActivitySummaryService summaryService,
+                             IdempotencyService idempotencyService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${transfer.failure-log.capacity:10000}") int capacity,
+                             @Value("${transfer.failure-log.batch-size:200}") int batchSize,
+                             @Value("${transfer.failure-log.overflow:DROP}") OverflowPolicy overflow) {
+        this.logWriter = logWriter;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.tx = new TransactionTemplate(transactionManager);
+        // never join a caller's transaction (CALLER_RUNS may be invoked from one)
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.overflow = overflow;
+        this.thread = new Thread(this::run, "failure-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
 
-    private final TransactionLogRepository logRepo;
+    /** Queues the log for writing; its id is assigned before this returns. */
+    public void saveFailureLog(TransactionLog failure) {
+        failure.setId(TimeOrderedIds.next());
+        failure.setCreatedOn(LocalDateTime.now());
 
-    public FailureLogService(TransactionLogRepository logRepo) {
-        this.logRepo = logRepo;
+        if (running && queue.offer(failure)) {
+            return;
+        }
+        if (!running || overflow == OverflowPolicy.CALLER_RUNS) {
+            // after shutdown began the writer thread may already be gone
+            write(List.of(failure));
+        } else if (dropped.incrementAndGet() % 1000 == 1) {
+            log.warn("Failure log queue full, dropping entries ({} dropped so far)", dropped.get());
+        }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void saveFailureLog(TransactionLog log) {
-        logRepo.save(log);
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.failure.log.queue.depth", queue, BlockingQueue::size)
+                .description("Failure logs waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("transfer.failure.log.written", written, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("transfer.failure.log.dropped", dropped, AtomicLong::get)
+                .description("Failure logs discarded because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("transfer.failure.log.write.errors", writeErrors, AtomicLong::get)
+                .description("Failure logs that could not be inserted")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        thread.join(10_000);
+    }
+
+    private void run() {
+        List<TransactionLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionLog first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TransactionLog> batch) {
+        try {
+            tx.executeWithoutResult(status -> persist(batch));
+            written.addAndGet(batch.size());
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                writeErrors.incrementAndGet();
+                log.warn("Could not write failure log {}", batch.get(0).getIdempotencyKey(), e);
+                // e.g. the key was taken by a request that did commit: replay that one instead
+                idempotencyService.forget(batch.get(0).getIdempotencyKey());
+                return;
+            }
+        }
+        // one bad row (e.g. a repeated idempotency key) must not lose the whole batch
+        for (TransactionLog t : batch) {
+            write(List.of(t));
+        }
+    }
+
+    private void persist(List<TransactionLog> batch) {
+        // summaries first: a missing summary is seeded from logs and must not see this batch
+        summaryService.recordAll(batch);
+        logWriter.insertAll(batch);
+
+        // a retry of a failed request replays the failure instead of running again
+        Map<String, TransferResponseDTO> responses = new HashMap<>();
+        for (TransactionLog t : batch) {
+            responses.put(t.getIdempotencyKey(),
+                    new TransferResponseDTO(t.getId(), "FAILED", t.getFailureReason()));
+        }
+        idempotencyService.rememberAll(responses);
     }
 }
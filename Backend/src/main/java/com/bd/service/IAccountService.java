@@ -3,7 +3,9 @@ package com.bd.service;
 import java.util.ArrayList;
 
 import com.bd.dto.AccountDTO;
+import com.bd.dto.AccountPageDTO;
 import com.bd.model.Account;
+import com.bd.model.Money;
 import java.util.List;
 
 
@@ -13,9 +15,9 @@ public interface IAccountService {
 
     AccountDTO getAccountById(String id);
 
-    Double getBalance(String id);
+    Money getBalance(String id);
 
-    List<AccountDTO> getAllAccounts();
+    AccountPageDTO listAccounts(String status, String sort, String cursor, int size);
     boolean accountExists(String id);
 
 }
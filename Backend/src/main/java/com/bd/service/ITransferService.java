@@ -1,6 +1,9 @@
 package com.bd.service;
 
+import com.bd.dto.AccountActivitySummaryDTO;
 import com.bd.dto.TransactionHistoryDTO;
+import com.bd.dto.TransactionHistoryFilter;
+import com.bd.dto.TransactionHistoryPageDTO;
 import com.bd.dto.TransferRequestDTO;
 import com.bd.dto.TransferResponseDTO;
 
@@ -12,4 +15,11 @@ public interface ITransferService {
     // 🔹 HISTORY API
         List<TransactionHistoryDTO> getTransactionHistory(
             String accountId);
+
+    // 🔹 PAGED HISTORY API (keyset on createdOn, id)
+    TransactionHistoryPageDTO getTransactionHistoryPage(
+            String accountId, TransactionHistoryFilter filter, String cursor, int size);
+
+    // 🔹 ACTIVITY SUMMARY API (O(1) counts and totals)
+    AccountActivitySummaryDTO getActivitySummary(String accountId);
 }
@@ -0,0 +1,216 @@
+package com.bd.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.IdempotencyRecord;
+import com.bd.repository.IdempotencyRecordRepository;
+import com.bd.util.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers the response returned for each idempotency key so a retried request
+ * gets the original answer back instead of running again.
+ *
+ * Lookups go cache → Bloom filter → database: a key the filter has never seen
+ * (the common case — a brand-new request) costs no round trip at all. Records are
+ * written in the same transaction as the transaction log row they describe.
+ */
+@Service
+public class IdempotencyService {
+
+    // cloned per call rather than held in a ThreadLocal: with virtual threads
+    // every request is a new thread and a ThreadLocal would never be reused
+    private static final MessageDigest SHA256;
+    static {
+        try {
+            SHA256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final IdempotencyRecordRepository repo;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final Cache<UUID, TransferResponseDTO> cache;
+
+    private volatile BloomFilter filter;
+    // set while the filter is being rebuilt so new keys land in both copies
+    private volatile BloomFilter rebuilding;
+
+    public IdempotencyService(IdempotencyRecordRepository repo,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.cache.max-size:100000}") long cacheSize,
+                              @Value("${idempotency.bloom.expected-keys:1000000}") long expectedKeys,
+                              @Value("${idempotency.bloom.fpp:0.01}") double falsePositiveRate) {
+        this.repo = repo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+        // until the startup load finishes every key "might" exist, so nothing is skipped
+        this.filter = null;
+    }
+
+    /** The response previously stored for this key, if it has not expired. */
+    public Optional<TransferResponseDTO> lookup(String idempotencyKey) {
+        UUID hash = hash(idempotencyKey);
+        TransferResponseDTO cached = cache.getIfPresent(hash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        BloomFilter f = filter;
+        if (f != null && !f.mightContain(hash.getMostSignificantBits(), hash.getLeastSignificantBits())) {
+            return Optional.empty();
+        }
+        return load(hash);
+    }
+
+    /**
+     * Same as {@link #lookup} but always consults the database on a cache miss.
+     * Used after a unique-key violation, when the key is known to exist.
+     */
+    public Optional<TransferResponseDTO> lookupStored(String idempotencyKey) {
+        UUID hash = hash(idempotencyKey);
+        TransferResponseDTO cached = cache.getIfPresent(hash);
+        return cached != null ? Optional.of(cached) : load(hash);
+    }
+
+    /** Stores the response for replay; must run inside the transaction that wrote the log row. */
+    public void remember(String idempotencyKey, TransferResponseDTO response) {
+        rememberAll(Map.of(idempotencyKey, response));
+    }
+
+    public void rememberAll(Map<String, TransferResponseDTO> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<IdempotencyRecord> records = new ArrayList<>(responses.size());
+        List<UUID> hashes = new ArrayList<>(responses.size());
+        responses.forEach((key, r) -> {
+            UUID hash = hash(key);
+            hashes.add(hash);
+            records.add(new IdempotencyRecord(hash, r.getTransactionId(), r.getStatus(),
+                    r.getMessage(), expiresAt));
+        });
+        repo.saveAll(records);
+
+        // a false positive is harmless, so the filter is updated right away;
+        // the cache only ever holds committed responses
+        for (UUID hash : hashes) {
+            addToFilter(hash);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (int i = 0; i < hashes.size(); i++) {
+                    IdempotencyRecord r = records.get(i);
+                    cache.put(hashes.get(i), new TransferResponseDTO(
+                            r.getTransactionId(), r.getStatus(), r.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes a response replayable on this node right away, before its record is
+     * written: for failures, whose log and record are written behind. The record
+     * stores the same response once it commits.
+     */
+    public void rememberPending(String idempotencyKey, TransferResponseDTO response) {
+        cache.put(hash(idempotencyKey), response);
+    }
+
+    /** Drops a pending response whose record could not be written. */
+    public void forget(String idempotencyKey) {
+        cache.invalidate(hash(idempotencyKey));
+    }
+
+    // 🔹 Drop expired records and rebuild the filter without them
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}",
+               initialDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(s -> repo.deleteExpired(LocalDateTime.now()));
+        rebuildFilter();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFilter() {
+        BloomFilter next = new BloomFilter(expectedKeys, falsePositiveRate);
+        rebuilding = next;
+        try {
+            transactionTemplate.executeWithoutResult(s -> {
+                try (Stream<UUID> keys = repo.streamActiveKeyHashes(LocalDateTime.now())) {
+                    keys.forEach(h -> next.put(h.getMostSignificantBits(), h.getLeastSignificantBits()));
+                }
+            });
+            filter = next;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private Optional<TransferResponseDTO> load(UUID hash) {
+        return repo.findById(hash)
+                .filter(r -> r.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(r -> {
+                    TransferResponseDTO response = new TransferResponseDTO(
+                            r.getTransactionId(), r.getStatus(), r.getMessage());
+                    cache.put(hash, response);
+                    return response;
+                });
+    }
+
+    private void addToFilter(UUID hash) {
+        long hi = hash.getMostSignificantBits();
+        long lo = hash.getLeastSignificantBits();
+        BloomFilter f = filter;
+        if (f != null) f.put(hi, lo);
+        BloomFilter r = rebuilding;
+        if (r != null) r.put(hi, lo);
+    }
+
+    /** First 128 bits of SHA-256 over the client's key. */
+    static UUID hash(String idempotencyKey) {
+        MessageDigest sha256;
+        try {
+            sha256 = (MessageDigest) SHA256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] digest = sha256.digest(idempotencyKey.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buf = ByteBuffer.wrap(digest, 0, 16);
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+}
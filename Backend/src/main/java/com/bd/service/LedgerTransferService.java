@@ -0,0 +1,54 @@
+package com.bd.service;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.bd.dto.AccountActivitySummaryDTO;
+import com.bd.dto.TransactionHistoryDTO;
+import com.bd.dto.TransactionHistoryFilter;
+import com.bd.dto.TransactionHistoryPageDTO;
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.ledger.LedgerEngine;
+
+/**
+ * {@link ITransferService} backed by the in-memory {@link LedgerEngine}.
+ * Selected with transfer.engine=ledger; reads still go through the JPA {@link TransferService}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "transfer.engine", havingValue = "ledger")
+public class LedgerTransferService implements ITransferService {
+
+    private final LedgerEngine engine;
+    private final TransferService jpaTransferService;
+
+    public LedgerTransferService(LedgerEngine engine, TransferService jpaTransferService) {
+        this.engine = engine;
+        this.jpaTransferService = jpaTransferService;
+    }
+
+    @Override
+    public TransferResponseDTO transfer(TransferRequestDTO request) {
+        return engine.transfer(request);
+    }
+
+    @Override
+    public List<TransactionHistoryDTO> getTransactionHistory(String accountId) {
+        return jpaTransferService.getTransactionHistory(accountId);
+    }
+
+    @Override
+    public TransactionHistoryPageDTO getTransactionHistoryPage(
+            String accountId, TransactionHistoryFilter filter, String cursor, int size) {
+        return jpaTransferService.getTransactionHistoryPage(accountId, filter, cursor, size);
+    }
+
+    @Override
+    public AccountActivitySummaryDTO getActivitySummary(String accountId) {
+        return jpaTransferService.getActivitySummary(accountId);
+    }
+}
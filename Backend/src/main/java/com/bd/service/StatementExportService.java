@@ -0,0 +1,174 @@
+package com.bd.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bd.archive.LogArchive;
+import com.bd.dto.TransactionHistoryDTO;
+import com.bd.model.TransactionLog;
+import com.bd.repository.TransactionLogRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Streams an account's full history as NDJSON or CSV. Rows are read from a
+ * cursor, mapped and written one at a time, and detached immediately, so heap
+ * use does not depend on how many rows the account has.
+ */
+@Service
+public class StatementExportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int FLUSH_EVERY = 500;
+    private static final String CSV_HEADER =
+            "transactionId,fromAccountId,toAccountId,amount,status,failureReason,createdOn\n";
+
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Comparator<TransactionLog> OLDEST_FIRST =
+            Comparator.comparing(TransactionLog::getCreatedOn).thenComparing(TransactionLog::getId);
+
+    private final TransactionLogRepository logRepo;
+    private final LogArchive archive;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StatementExportService(TransactionLogRepository logRepo, LogArchive archive, ObjectMapper objectMapper) {
+        this.logRepo = logRepo;
+        this.archive = archive;
+        this.objectMapper = objectMapper;
+    }
+
+    public static String normalizeFormat(String format) {
+        String f = format == null ? FORMAT_NDJSON : format.toLowerCase();
+        if (!f.equals(FORMAT_NDJSON) && !f.equals(FORMAT_CSV)) {
+            throw new IllegalArgumentException("Format must be ndjson or csv");
+        }
+        return f;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String accountId, String format, LocalDateTime from, LocalDateTime to,
+                       OutputStream out) throws IOException {
+        boolean csv = FORMAT_CSV.equals(normalizeFormat(format));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+
+        LocalDateTime fromTime = from != null ? from : MIN_TIME;
+        LocalDateTime toTime = to != null ? to : MAX_TIME;
+        try (Stream<TransactionLog> rows = logRepo.streamTransactionHistory(accountId, fromTime, toTime)) {
+
+            // rows reaching back past the archive horizon come from the segment files;
+            // table rows the archive already covers are skipped
+            LogArchive.View archived = archive.view();
+            Iterator<TransactionLog> table = rows.filter(t -> !archived.covers(t)).iterator();
+            Iterator<TransactionLog> it = archived.reaches(fromTime)
+                    ? merge(archived.stream(accountId, fromTime, toTime).iterator(), table)
+                    : table;
+            long written = 0;
+            while (it.hasNext()) {
+                TransactionLog t = it.next();
+                TransactionHistoryDTO dto = new TransactionHistoryDTO(
+                        t.getId(),
+                        t.getFromAccountId(),
+                        t.getToAccountId(),
+                        t.getAmount(),
+                        t.getStatus(),
+                        t.getFailureReason(),
+                        t.getCreatedOn());
+                // keep the persistence context empty; otherwise it grows with every row
+                if (entityManager.contains(t)) {
+                    entityManager.detach(t);
+                }
+
+                if (csv) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+
+                // first row goes out immediately, then in chunks
+                if (++written == 1 || written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // two (createdOn, id)-ordered iterators as one
+    private static Iterator<TransactionLog> merge(Iterator<TransactionLog> a, Iterator<TransactionLog> b) {
+        return new Iterator<>() {
+            private TransactionLog nextA = a.hasNext() ? a.next() : null;
+            private TransactionLog nextB = b.hasNext() ? b.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextA != null || nextB != null;
+            }
+
+            @Override
+            public TransactionLog next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TransactionLog t;
+                if (nextB == null || (nextA != null && OLDEST_FIRST.compare(nextA, nextB) <= 0)) {
+                    t = nextA;
+                    nextA = a.hasNext() ? a.next() : null;
+                } else {
+                    t = nextB;
+                    nextB = b.hasNext() ? b.next() : null;
+                }
+                return t;
+            }
+        };
+    }
+
+    private static void writeCsvRow(Writer w, TransactionHistoryDTO dto) throws IOException {
+        w.write(String.valueOf(dto.transactionId()));
+        w.write(',');
+        w.write(csv(dto.fromAccountId()));
+        w.write(',');
+        w.write(csv(dto.toAccountId()));
+        w.write(',');
+        w.write(String.valueOf(dto.amount()));
+        w.write(',');
+        w.write(csv(dto.status()));
+        w.write(',');
+        w.write(csv(dto.failureReason()));
+        w.write(',');
+        w.write(String.valueOf(dto.createdOn()));
+        w.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
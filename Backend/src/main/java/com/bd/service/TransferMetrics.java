@@ -0,0 +1,125 @@
+package com.bd.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.bd.exception.AccountNotFoundException;
+import com.bd.exception.BusinessRuleException;
+import com.bd.model.Rejection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the transfer pipeline:
+ * <ul>
+ *   <li>{@code transfer.phase} timer, tagged {@code phase}: where a single transfer spends its time</li>
+ *   <li>{@code transfer.duration} timer, tagged {@code outcome}: the whole call, retries included</li>
+ *   <li>{@code transfer.outcome} counter, tagged {@code outcome} and a normalized {@code reason}</li>
+ * </ul>
+ * All meters are registered up front, so the hot path only reads the clock and
+ * records. Percentile histograms are switched on by
+ * {@code management.metrics.distribution.percentiles-histogram.transfer}.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Phase {
+        IDEMPOTENCY_LOOKUP,
+        ACCOUNT_LOAD,
+        DEBIT_CREDIT,
+        LOG_INSERT,
+        // flush of the balance updates and log insert, then the database commit
+        COMMIT;
+
+        final String tag = name().toLowerCase();
+    }
+
+    public enum Outcome {
+        SUCCESS, FAILED, REPLAYED;
+
+        final String tag = name().toLowerCase();
+    }
+
+    /** Failure reasons with bounded cardinality (never the raw exception message). */
+    public enum Reason {
+        NONE,
+        INSUFFICIENT_BALANCE,
+        INACTIVE,
+        DUPLICATE,
+        NOT_FOUND,
+        LOCK_CONFLICT,
+        INVALID_REQUEST,
+        INTERRUPTED,
+        OTHER;
+
+        final String tag = name().toLowerCase();
+
+        /** Maps a business-rule rejection to its reason. */
+        public static Reason of(Rejection rejection) {
+            return switch (rejection) {
+                case INSUFFICIENT_BALANCE -> INSUFFICIENT_BALANCE;
+                case INACTIVE_ACCOUNT -> INACTIVE;
+                case FROM_ACCOUNT_NOT_FOUND, TO_ACCOUNT_NOT_FOUND -> NOT_FOUND;
+                case NON_POSITIVE_DEBIT, NON_POSITIVE_CREDIT, SAME_ACCOUNT -> INVALID_REQUEST;
+            };
+        }
+
+        /** Maps an exception that failed a transfer attempt to its reason. */
+        public static Reason of(Throwable e) {
+            if (e instanceof BusinessRuleException b) return of(b.getRejection());
+            if (e instanceof AccountNotFoundException) return NOT_FOUND;
+            if (e instanceof ObjectOptimisticLockingFailureException
+                    || e instanceof PessimisticLockingFailureException) return LOCK_CONFLICT;
+            if (e instanceof DataIntegrityViolationException) return DUPLICATE;
+            if (e instanceof IllegalArgumentException) return INVALID_REQUEST;
+            return OTHER;
+        }
+    }
+
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Timer> durations = new EnumMap<>(Outcome.class);
+    private final Map<Outcome, Map<Reason, Counter>> outcomes = new EnumMap<>(Outcome.class);
+
+    public TransferMetrics(MeterRegistry registry) {
+        for (Phase p : Phase.values()) {
+            phases.put(p, Timer.builder("transfer.phase")
+                    .description("Time spent in one phase of a transfer attempt")
+                    .tag("phase", p.tag)
+                    .register(registry));
+        }
+        for (Outcome o : Outcome.values()) {
+            durations.put(o, Timer.builder("transfer.duration")
+                    .description("Transfer service time, including lock-conflict retries")
+                    .tag("outcome", o.tag)
+                    .register(registry));
+            Map<Reason, Counter> byReason = new EnumMap<>(Reason.class);
+            for (Reason r : Reason.values()) {
+                byReason.put(r, Counter.builder("transfer.outcome")
+                        .description("Transfers by outcome and failure reason")
+                        .tag("outcome", o.tag)
+                        .tag("reason", r.tag)
+                        .register(registry));
+            }
+            outcomes.put(o, byReason);
+        }
+    }
+
+    /** Records the time since {@code startNanos} (a {@link System#nanoTime()} value) for a phase. */
+    public void phase(Phase phase, long startNanos) {
+        phases.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Counts one finished transfer and records its total time since {@code startNanos}. */
+    public void outcome(Outcome outcome, Reason reason, long startNanos) {
+        durations.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        outcomes.get(outcome).get(reason).increment();
+    }
+}
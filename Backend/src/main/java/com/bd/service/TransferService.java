@@ -1,123 +1,436 @@
 package com.bd.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bd.archive.LogArchive;
+import com.bd.dto.AccountActivitySummaryDTO;
+import com.bd.dto.HistoryCursor;
 import com.bd.dto.TransactionHistoryDTO;
+import com.bd.dto.TransactionHistoryFilter;
+import com.bd.dto.TransactionHistoryPageDTO;
 import com.bd.dto.TransferRequestDTO;
 import com.bd.dto.TransferResponseDTO;
 import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.model.OutboxEvent;
+import com.bd.model.Rejection;
 import com.bd.model.TransactionLog;
 import com.bd.repository.AccountRepository;
+import com.bd.repository.OutboxEventRepository;
 import com.bd.repository.TransactionLogRepository;
+import com.bd.service.TransferMetrics.Outcome;
+import com.bd.service.TransferMetrics.Phase;
+import com.bd.service.TransferMetrics.Reason;
 
 @Service
 public class TransferService implements ITransferService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    // open-ended bounds used when the caller gives no date range / cursor
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    // rejections answered without a failure log: precomputed, immutable responses
+    private static final Map<Rejection, TransferResponseDTO> UNLOGGED_REJECTIONS = new EnumMap<>(Map.of(
+            Rejection.FROM_ACCOUNT_NOT_FOUND, new TransferResponseDTO(null, "FAILED", Rejection.FROM_ACCOUNT_NOT_FOUND.message()),
+            Rejection.TO_ACCOUNT_NOT_FOUND, new TransferResponseDTO(null, "FAILED", Rejection.TO_ACCOUNT_NOT_FOUND.message())));
+
+    // a request without an amount cannot be logged: the log row's amount is not nullable
+    private static final TransferResponseDTO MISSING_AMOUNT =
+            new TransferResponseDTO(null, "FAILED", Rejection.NON_POSITIVE_DEBIT.message());
+
+    // nor can one without an idempotency key, which could never be replayed either
+    static final TransferResponseDTO MISSING_IDEMPOTENCY_KEY =
+            new TransferResponseDTO(null, "FAILED", "Idempotency key is required");
+
+    private static final Comparator<TransactionLog> NEWEST_FIRST =
+            Comparator.comparing(TransactionLog::getCreatedOn)
+                    .thenComparing(TransactionLog::getId)
+                    .reversed();
+
     private final AccountRepository accountRepo;
     private final TransactionLogRepository logRepo;
+    private final OutboxEventRepository outboxRepo;
     private final FailureLogService failureLogService;
+    private final ActivitySummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceCache balanceCache;
+    private final TransferMetrics metrics;
+    private final LogArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
 
     public TransferService(AccountRepository accountRepo,
                            TransactionLogRepository logRepo,
-                           FailureLogService failureLogService) {
+                           OutboxEventRepository outboxRepo,
+                           FailureLogService failureLogService,
+                           ActivitySummaryService summaryService,
+                           IdempotencyService idempotencyService,
+                           BalanceCache balanceCache,
+                           TransferMetrics metrics,
+                           LogArchive archive,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${transfer.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${transfer.retry.initial-backoff-ms:10}") long initialBackoffMs) {
         this.accountRepo = accountRepo;
         this.logRepo = logRepo;
+        this.outboxRepo = outboxRepo;
         this.failureLogService = failureLogService;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.balanceCache = balanceCache;
+        this.metrics = metrics;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
     }
 
     @Override
-    @Transactional
     public TransferResponseDTO transfer(TransferRequestDTO request) {
-        // First, ensure both accounts exist before doing any work
-        if (!accountRepo.existsById(request.getFromAccountId())) {
-            return new TransferResponseDTO(null, "FAILED", "From account not found");
+        long start = System.nanoTime();
+        if (request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()) {
+            metrics.outcome(Outcome.FAILED, Reason.INVALID_REQUEST, start);
+            return MISSING_IDEMPOTENCY_KEY;
+        }
+        if (request.getAmount() == null) {
+            metrics.outcome(Outcome.FAILED, Reason.INVALID_REQUEST, start);
+            return MISSING_AMOUNT;
+        }
+
+        // 🔹 A retried request gets its original response back (usually without a DB round trip)
+        var replay = idempotencyService.lookup(request.getIdempotencyKey());
+        metrics.phase(Phase.IDEMPOTENCY_LOOKUP, start);
+        if (replay.isPresent()) {
+            metrics.outcome(Outcome.REPLAYED, Reason.NONE, start);
+            return replay.get();
         }
-        if (!accountRepo.existsById(request.getToAccountId())) {
-            return new TransferResponseDTO(null, "FAILED", "To account not found");
+
+        // 🔹 Each attempt is its own transaction; lock conflicts are retried with backoff
+        AttemptState state = new AttemptState();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                state.rejection = null;
+                TransferResponseDTO response = transactionTemplate.execute(status -> doTransfer(request, state));
+                metrics.phase(Phase.COMMIT, state.bodyDone);
+                if (state.rejection != null) {
+                    return rejected(request, state.rejection, start);
+                }
+                metrics.outcome(Outcome.SUCCESS, Reason.NONE, start);
+                return response;
+
+            } catch (ObjectOptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    return failed(request, "Concurrent update conflict, please retry", Reason.LOCK_CONFLICT, start);
+                }
+                if (!backoff(attempt)) {
+                    return failed(request, "Transfer interrupted", Reason.INTERRUPTED, start);
+                }
+
+            } catch (DataIntegrityViolationException e) {
+                // unique idempotency key lost a race with a concurrent identical request:
+                // answer with whatever the winner stored
+                var stored = idempotencyService.lookupStored(request.getIdempotencyKey());
+                if (stored.isPresent()) {
+                    metrics.outcome(Outcome.REPLAYED, Reason.DUPLICATE, start);
+                    return stored.get();
+                }
+                // only a duplicate if a row with this key exists: the winner has committed
+                // by the time the unique index rejects us
+                if (!logRepo.existsByIdempotencyKey(request.getIdempotencyKey())) {
+                    return failed(request, "Transfer could not be recorded", Reason.OTHER, start);
+                }
+                metrics.outcome(Outcome.FAILED, Reason.DUPLICATE, start);
+                return new TransferResponseDTO(null, "FAILED", "Duplicate transfer request");
+
+            } catch (Exception e) {
+                // unexpected failure: the attempt was rolled back as a whole
+                return failed(request, e.getMessage(), Reason.of(e), start);
+            }
+        }
+    }
+
+    /**
+     * One transfer attempt. Both accounts are loaded and row-locked by a single
+     * SELECT ... FOR UPDATE in ascending id order, so concurrent A→B and B→A
+     * transfers queue behind each other instead of deadlocking.
+     *
+     * Business rules are checked before anything is modified, so a rejection is
+     * returned (null, with {@code state.rejection} set) rather than thrown: the
+     * attempt just commits its empty transaction. Any exception rolls back the
+     * whole attempt.
+     */
+    private TransferResponseDTO doTransfer(TransferRequestDTO request, AttemptState state) {
+        String fromId = request.getFromAccountId();
+        String toId = request.getToAccountId();
+
+        // 🔹 Fetch and lock accounts (one round trip)
+        long phaseStart = System.nanoTime();
+        Account from = null;
+        Account to = null;
+        List<String> ids = fromId.equals(toId) ? List.of(fromId) : List.of(fromId, toId);
+        for (Account a : accountRepo.findAllByIdForUpdate(ids)) {
+            if (a.getId().equals(fromId)) from = a;
+            if (a.getId().equals(toId)) to = a;
+        }
+        metrics.phase(Phase.ACCOUNT_LOAD, phaseStart);
+        if (from == null) {
+            return state.reject(Rejection.FROM_ACCOUNT_NOT_FOUND);
+        }
+        if (to == null) {
+            return state.reject(Rejection.TO_ACCOUNT_NOT_FOUND);
+        }
+        if (from == to) {
+            return state.reject(Rejection.SAME_ACCOUNT);
+        }
+
+        // 🔹 Perform transfer (managed entities: flushed on commit, no explicit save)
+        phaseStart = System.nanoTime();
+        Money amount = request.getAmount();
+        Rejection rejection = from.checkDebit(amount);
+        if (rejection == null) {
+            rejection = to.checkCredit(amount);
+        }
+        if (rejection != null) {
+            metrics.phase(Phase.DEBIT_CREDIT, phaseStart);
+            return state.reject(rejection);
+        }
+        from.debit(amount);
+        to.credit(amount);
+        balanceCache.updateAfterCommit(List.of(from, to));
+        metrics.phase(Phase.DEBIT_CREDIT, phaseStart);
+
+        // 🔹 Save success log (the INSERT itself is batched into the commit flush)
+        phaseStart = System.nanoTime();
+        TransactionLog log = newLog(request);
+        log.setStatus("SUCCESS");
+        summaryService.record(log);
+        logRepo.save(log);
+        // 🔹 Account events for subscribed clients, committed (or rolled back) with the transfer
+        outboxRepo.saveAll(List.of(
+                OutboxEvent.debit(log, from.getBalance().minor()),
+                OutboxEvent.credit(log, to.getBalance().minor())));
+
+        TransferResponseDTO response = new TransferResponseDTO(
+                log.getId(),
+                "SUCCESS",
+                "Transfer completed successfully"
+        );
+        idempotencyService.remember(request.getIdempotencyKey(), response);
+        metrics.phase(Phase.LOG_INSERT, phaseStart);
+        state.bodyDone = System.nanoTime();
+        return response;
+    }
+
+    private TransferResponseDTO rejected(TransferRequestDTO request, Rejection rejection, long start) {
+        TransferResponseDTO unlogged = UNLOGGED_REJECTIONS.get(rejection);
+        if (unlogged != null) {
+            // no log row: it would reference an account that does not exist
+            metrics.outcome(Outcome.FAILED, Reason.of(rejection), start);
+            return unlogged;
+        }
+        return failed(request, rejection.message(), Reason.of(rejection), start);
+    }
+
+    private TransferResponseDTO failed(TransferRequestDTO request, String reason,
+                                       Reason metricReason, long start) {
+        // 🔹 Queue failure log for the background writer (id is assigned immediately)
+        TransactionLog log = newLog(request);
+        log.setStatus("FAILED");
+        log.setFailureReason(reason);
+        try {
+            failureLogService.saveFailureLog(log);
+        } catch (Exception ex) {
+            // ignore logging errors to ensure we return a controlled FAILED response
         }
 
-        // ✅ Create log with request values (not yet persisted)
+        metrics.outcome(Outcome.FAILED, metricReason, start);
+
+        // 🔹 Return FAILED response instead of throwing 500
+        TransferResponseDTO response = new TransferResponseDTO(
+                log.getId(),
+                "FAILED",
+                reason
+        );
+        // replayable now, not once the writer flushes: a retry must not run the transfer again
+        idempotencyService.rememberPending(request.getIdempotencyKey(), response);
+        return response;
+    }
+
+    private static TransactionLog newLog(TransferRequestDTO request) {
         TransactionLog log = new TransactionLog();
         log.setFromAccountId(request.getFromAccountId());
         log.setToAccountId(request.getToAccountId());
         log.setAmount(request.getAmount());
         log.setIdempotencyKey(request.getIdempotencyKey());
+        return log;
+    }
 
-        try {
+    /** Per-call scratch filled in by {@link #doTransfer} (one allocation per call, reused across retries). */
+    private static final class AttemptState {
+        Rejection rejection;
+        long bodyDone;
 
-            // 🔹 Idempotency check
-            logRepo.findByIdempotencyKey(request.getIdempotencyKey())
-                    .ifPresent(t -> {
-                        throw new IllegalStateException("Duplicate transfer request");
-                    });
+        TransferResponseDTO reject(Rejection r) {
+            rejection = r;
+            bodyDone = System.nanoTime();
+            return null;
+        }
+    }
 
-            // 🔹 Fetch accounts
-            Account from = accountRepo.findById(request.getFromAccountId())
-                    .orElseThrow(() -> new RuntimeException("From account not found"));
+    /** Exponential backoff with jitter; returns false if the thread was interrupted. */
+    private boolean backoff(int attempt) {
+        long base = initialBackoffMs << (attempt - 1);
+        long delay = base + ThreadLocalRandom.current().nextLong(base + 1);
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            Account to = accountRepo.findById(request.getToAccountId())
-                    .orElseThrow(() -> new RuntimeException("To account not found"));
+    // ---------------- TRANSACTION HISTORY ----------------
 
-            if (from.getId().equals(to.getId())) {
-                throw new IllegalArgumentException("Cannot transfer to same account");
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionHistoryDTO> getTransactionHistory(String accountId) {
+        List<TransactionLog> rows = new ArrayList<>(logRepo.findTransactionHistory(accountId));
+        LogArchive.View view = archive.view();
+        rows.removeIf(view::covers);
+        // archived rows are older than anything still in the table
+        List<TransactionLog> archived = view.stream(accountId, MIN_TIME, MAX_TIME).toList();
+        if (!archived.isEmpty()) {
+            rows.addAll(archived);
+            rows.sort(NEWEST_FIRST);
+        }
+        return rows.stream()
+                .map(TransferService::toHistoryDTO)
+                .collect(Collectors.toList());
+    }
 
-            // 🔹 Perform transfer
-            from.debit(request.getAmount());
-            to.credit(request.getAmount());
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPageDTO getTransactionHistoryPage(
+            String accountId, TransactionHistoryFilter filter, String cursor, int size) {
 
-            accountRepo.save(from);
-            accountRepo.save(to);
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        String direction = filter.direction() == null ? "ALL" : filter.direction().toUpperCase();
+        String status = filter.status() == null ? null : filter.status().toUpperCase();
+        if (status != null && !status.equals("SUCCESS") && !status.equals("FAILED")) {
+            throw new IllegalArgumentException("Status must be SUCCESS or FAILED");
+        }
 
-            // 🔹 Save success log
-            log.setStatus("SUCCESS");
-            logRepo.save(log);
+        LocalDateTime fromTime = filter.from() != null ? filter.from() : MIN_TIME;
+        LocalDateTime beforeTime = filter.to() != null ? filter.to() : MAX_TIME;
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            HistoryCursor c = HistoryCursor.decode(cursor);
+            if (c.createdOn().isBefore(beforeTime) || c.createdOn().isEqual(beforeTime)) {
+                beforeTime = c.createdOn();
+                beforeId = c.id();
+            }
+        }
 
-            return new TransferResponseDTO(
-                    log.getId(),
-                    "SUCCESS",
-                    "Transfer completed successfully"
-            );
+        // fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<TransactionLog> rows;
+        switch (direction) {
+            case "SENT" -> rows = logRepo.findSentPage(
+                    accountId, status, fromTime, beforeTime, beforeId, limit);
+            case "RECEIVED" -> rows = logRepo.findReceivedPage(
+                    accountId, status, fromTime, beforeTime, beforeId, limit);
+            case "ALL" -> {
+                // two index range scans merged in memory instead of one OR scan
+                rows = new ArrayList<>(logRepo.findSentPage(
+                        accountId, status, fromTime, beforeTime, beforeId, limit));
+                for (TransactionLog t : logRepo.findReceivedPage(
+                        accountId, status, fromTime, beforeTime, beforeId, limit)) {
+                    // self-transfers (always FAILED) are returned by both scans
+                    if (!accountId.equals(t.getFromAccountId())) {
+                        rows.add(t);
+                    }
+                }
+                rows.sort(NEWEST_FIRST);
+            }
+            default -> throw new IllegalArgumentException("Direction must be ALL, SENT or RECEIVED");
+        }
 
-        } catch (Exception e) {
+        // read with the table rows: those the archive already covers are dropped
+        LogArchive.View archived = archive.view();
+        rows = new ArrayList<>(rows);
+        rows.removeIf(archived::covers);
 
-            // 🔹 Save failure log in separate transaction (don't let save errors override response)
-            log.setStatus("FAILED");
-            log.setFailureReason(e.getMessage());
-            try {
-                failureLogService.saveFailureLog(log);
-            } catch (Exception ex) {
-                // ignore logging errors to ensure we return a controlled FAILED response
-            }
+        // 🔹 Archived rows only matter when the table did not fill the page with rows
+        //    newer than everything archived
+        if (archived.reaches(fromTime)
+                && (rows.size() <= pageSize || !rows.get(pageSize).getCreatedOn().isAfter(archived.horizon()))) {
+            LocalDateTime cursorTime = beforeTime;
+            Long cursorId = beforeId;
+            Predicate<TransactionLog> match = t ->
+                    (status == null || status.equals(t.getStatus()))
+                    && (!direction.equals("SENT") || accountId.equals(t.getFromAccountId()))
+                    && (!direction.equals("RECEIVED") || accountId.equals(t.getToAccountId()))
+                    && (t.getCreatedOn().isBefore(cursorTime)
+                        || (t.getCreatedOn().isEqual(cursorTime) && t.getId() < cursorId));
+            rows.addAll(archived.findNewest(accountId, fromTime, beforeTime, match, pageSize + 1));
+            rows.sort(NEWEST_FIRST);
+        }
 
-            // 🔹 Return FAILED response instead of throwing 500
-            return new TransferResponseDTO(
-                    log.getId(),
-                    "FAILED",
-                    e.getMessage()
-            );
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionLog> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionLog last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedOn(), last.getId()).encode();
         }
+
+        return new TransactionHistoryPageDTO(
+                page.stream().map(TransferService::toHistoryDTO).collect(Collectors.toList()),
+                nextCursor,
+                hasMore
+        );
     }
 
-    // ---------------- TRANSACTION HISTORY ----------------
+    // ---------------- ACTIVITY SUMMARY ----------------
 
     @Override
-    public List<TransactionHistoryDTO> getTransactionHistory(String accountId) {
-        return logRepo.findTransactionHistory(accountId)
-                .stream()
-                .map(t -> new TransactionHistoryDTO(
-                        t.getId(),
-                        t.getFromAccountId(),
-                        t.getToAccountId(),
-                        t.getAmount(),
-                        t.getStatus(),
-                        t.getFailureReason(),
-                        t.getCreatedOn()
-                ))
-                .collect(Collectors.toList());
+    public AccountActivitySummaryDTO getActivitySummary(String accountId) {
+        return summaryService.getSummary(accountId);
+    }
+
+    private static TransactionHistoryDTO toHistoryDTO(TransactionLog t) {
+        return new TransactionHistoryDTO(
+                t.getId(),
+                t.getFromAccountId(),
+                t.getToAccountId(),
+                t.getAmount(),
+                t.getStatus(),
+                t.getFailureReason(),
+                t.getCreatedOn()
+        );
     }
 }
@@ -0,0 +1,52 @@
+package com.bd.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe Bloom filter over 128-bit keys (already uniformly hashed).
+ * {@link #mightContain} never returns false for a key that was added; it may
+ * return true for one that was not (about {@code fpp} of the time at capacity).
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedKeys, double fpp) {
+        long n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void put(long hi, long lo) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hi, lo, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long cur;
+            while (((cur = bits.get(word)) & mask) == 0
+                    && !bits.compareAndSet(word, cur, cur | mask)) {
+                // retry until the bit is set
+            }
+        }
+    }
+
+    public boolean mightContain(long hi, long lo) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hi, lo, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Kirsch–Mitzenmacher double hashing: h_i = h1 + i * h2
+    private long index(long hi, long lo, int i) {
+        return Math.floorMod(hi + i * lo, bitCount);
+    }
+}
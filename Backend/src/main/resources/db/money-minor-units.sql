@@ -0,0 +1,19 @@
+-- One-off MySQL migration: DOUBLE amounts -> BIGINT minor units (cents).
+-- Run once, with the application stopped, before deploying the Money change.
+-- (ddl-auto=update would add the new columns but never copy or drop the old ones.)
+
+ALTER TABLE accounts ADD COLUMN balance_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE accounts SET balance_minor = ROUND(balance * 100);
+ALTER TABLE accounts DROP COLUMN balance;
+
+ALTER TABLE transaction_logs ADD COLUMN amount_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE transaction_logs SET amount_minor = ROUND(amount * 100);
+ALTER TABLE transaction_logs DROP COLUMN amount;
+
+-- summaries are derived data: drop them and they are re-seeded from the logs on first use
+DELETE FROM account_activity_summary;
+ALTER TABLE account_activity_summary
+    DROP COLUMN total_debited,
+    DROP COLUMN total_credited,
+    ADD COLUMN total_debited_minor BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN total_credited_minor BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- One-off MySQL migration: outbox events are no longer flagged as published.
+-- Each instance now tails the outbox by id, so the flag (and its index) is unused;
+-- ddl-auto=update never drops columns, and the NOT NULL flag would reject new rows.
+
+ALTER TABLE outbox_events DROP INDEX idx_outbox_published;
+ALTER TABLE outbox_events DROP COLUMN published;
@@ -0,0 +1,90 @@
+package com.bd.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.bd.model.Money;
+import com.bd.model.TransactionLog;
+import com.bd.repository.ArchiveSegmentRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+
+class LogArchiverTest {
+
+    @TempDir
+    Path dir;
+
+    private final TransactionLogRepository logRepo = mock(TransactionLogRepository.class);
+    private LogArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager tm = mock(PlatformTransactionManager.class);
+        when(tm.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ArchiveSegmentRepository segmentRepo = mock(ArchiveSegmentRepository.class);
+        LogArchive archive = new LogArchive(segmentRepo, dir.toString(), 16);
+        archiver = new LogArchiver(logRepo, segmentRepo, mock(ActivitySummaryService.class), archive, tm,
+                Duration.ofDays(90), 100, 16, 10);
+    }
+
+    @Test
+    void legacyRowsAreArchivedByAgeNotByTheirSmallIds() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        // ids from before logs were time-ordered: all below any time-ordered bound
+        List<TransactionLog> legacy = List.of(
+                log(1, now.minusDays(200)),
+                log(2, now.minusDays(120)),
+                log(3, now.minusDays(1)),
+                log(4, now.minusDays(300)));
+        when(logRepo.findArchivable(anyLong(), any())).thenReturn(legacy);
+        when(logRepo.deleteIdRange(1, 2)).thenReturn(2);
+
+        archiver.archiveOldLogs();
+
+        // stops at the first recent row, so the archive stays an id prefix
+        verify(logRepo).deleteIdRange(1, 2);
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .containsExactlyInAnyOrder(SegmentFormat.baseName(1, 2) + SegmentFormat.DATA_SUFFIX,
+                            SegmentFormat.baseName(1, 2) + SegmentFormat.INDEX_SUFFIX);
+        }
+    }
+
+    @Test
+    void nothingIsArchivedWhileTheOldestRowIsRecent() {
+        when(logRepo.findArchivable(anyLong(), any())).thenReturn(List.of(log(1, LocalDateTime.now().minusHours(3))));
+
+        archiver.archiveOldLogs();
+
+        verify(logRepo, never()).deleteIdRange(anyLong(), anyLong());
+    }
+
+    private static TransactionLog log(long id, LocalDateTime createdOn) {
+        TransactionLog t = new TransactionLog();
+        t.setId(id);
+        t.setFromAccountId("A");
+        t.setToAccountId("B");
+        t.setAmount(Money.ofMinor(100));
+        t.setStatus("SUCCESS");
+        t.setIdempotencyKey("key-" + id);
+        t.setCreatedOn(createdOn);
+        return t;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bd.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bd.model.Money;
+import com.bd.model.TransactionLog;
+
+class SegmentFormatTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_789);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsSurviveAWriteAndReadRoundTrip() throws IOException {
+        List<TransactionLog> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // "C" only sends, in the last block
+            String from = i < 8 ? (i % 2 == 0 ? "A" : "B") : "C";
+            String to = i % 2 == 0 ? "B" : "A";
+            boolean failed = i % 3 == 0;
+            rows.add(log(100L + i, from, to, 1_000L * i + 7, failed ? "FAILED" : "SUCCESS",
+                    failed ? "Insufficient balance" : null, T0.plusMinutes(i)));
+        }
+        String name = SegmentFormat.baseName(100, 109);
+        SegmentFormat.write(dir, name, rows, 4);
+
+        SegmentIndex index = SegmentFormat.readIndex(dir, name);
+        assertThat(index.offsets).hasSize(3);
+        assertThat(index.blocksOf("A")).containsExactly(0, 1, 2);
+        assertThat(index.blocksOf("C")).containsExactly(2);
+        assertThat(index.blocksOf("nobody")).isEmpty();
+        assertThat(index.overlaps(1, T0.plusMinutes(4), T0.plusMinutes(4))).isTrue();
+        assertThat(index.overlaps(1, T0.plusMinutes(8), T0.plusMinutes(9))).isFalse();
+
+        List<TransactionLog> read = new ArrayList<>();
+        try (FileChannel ch = FileChannel.open(dir.resolve(name + SegmentFormat.DATA_SUFFIX), StandardOpenOption.READ)) {
+            for (int b = 0; b < index.offsets.length; b++) {
+                read.addAll(SegmentFormat.readBlock(ch, index.offsets[b], index.lengths[b]));
+            }
+        }
+        assertThat(read).hasSize(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TransactionLog expected = rows.get(i);
+            TransactionLog actual = read.get(i);
+            assertThat(actual.getId()).isEqualTo(expected.getId());
+            assertThat(actual.getFromAccountId()).isEqualTo(expected.getFromAccountId());
+            assertThat(actual.getToAccountId()).isEqualTo(expected.getToAccountId());
+            assertThat(actual.getAmountMinor()).isEqualTo(expected.getAmountMinor());
+            assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+            assertThat(actual.getFailureReason()).isEqualTo(expected.getFailureReason());
+            assertThat(actual.getIdempotencyKey()).isEqualTo(expected.getIdempotencyKey());
+            assertThat(actual.getCreatedOn()).isEqualTo(expected.getCreatedOn());
+        }
+    }
+
+    @Test
+    void deleteRemovesBothFiles() throws IOException {
+        String name = SegmentFormat.baseName(1, 1);
+        SegmentFormat.write(dir, name, List.of(log(1L, "A", "B", 500, "SUCCESS", null, T0)), 256);
+        assertThat(dir.resolve(name + SegmentFormat.DATA_SUFFIX)).exists();
+        assertThat(dir.resolve(name + SegmentFormat.INDEX_SUFFIX)).exists();
+
+        SegmentFormat.delete(dir, name);
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static TransactionLog log(long id, String from, String to, long amountMinor, String status,
+                                      String failureReason, LocalDateTime createdOn) {
+        TransactionLog t = new TransactionLog();
+        t.setId(id);
+        t.setFromAccountId(from);
+        t.setToAccountId(to);
+        t.setAmount(Money.ofMinor(amountMinor));
+        t.setStatus(status);
+        t.setFailureReason(failureReason);
+        t.setIdempotencyKey("key-" + id);
+        t.setCreatedOn(createdOn);
+        return t;
+    }
+}
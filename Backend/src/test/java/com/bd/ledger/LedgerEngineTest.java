@@ -0,0 +1,340 @@
+package com.bd.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.bd.dto.TransferRequestDTO;
+import com.bd.dto.TransferResponseDTO;
+import com.bd.model.Account;
+import com.bd.model.Money;
+import com.bd.model.TransactionLog;
+import com.bd.model.id.TimeOrderedIds;
+import com.bd.repository.AccountRepository;
+import com.bd.repository.OutboxEventRepository;
+import com.bd.repository.TransactionLogRepository;
+import com.bd.service.ActivitySummaryService;
+import com.bd.service.BalanceCache;
+import com.bd.service.FailureLogService;
+import com.bd.service.IdempotencyService;
+
+/**
+ * Ledger engine against mocked repositories. With two partitions, "A" and "C"
+ * share a partition and "B" is on the other one.
+ */
+class LedgerEngineTest {
+
+    // the "database": balances in minor units, never allowed below zero
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final Map<String, TransferResponseDTO> remembered = new ConcurrentHashMap<>();
+    private final Map<String, CountDownLatch> accountLoadGates = new ConcurrentHashMap<>();
+    private final Set<String> failingAccountLoads = ConcurrentHashMap.newKeySet();
+
+    private volatile CountDownLatch writeGate = new CountDownLatch(0);
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private volatile boolean databaseDown;
+    private volatile String rejectedKey;
+
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        AccountRepository accountRepo = mock(AccountRepository.class);
+        when(accountRepo.findById(anyString())).thenAnswer(inv -> {
+            String id = inv.getArgument(0);
+            CountDownLatch gate = accountLoadGates.get(id);
+            if (gate != null) {
+                gate.await();
+            }
+            if (failingAccountLoads.contains(id)) {
+                throw new QueryTimeoutException("connection pool timeout");
+            }
+            if (!balances.containsKey(id)) {
+                return Optional.empty();
+            }
+            Account a = new Account();
+            a.setId(id);
+            a.setStatus(statuses.getOrDefault(id, "ACTIVE"));
+            a.setBalance(Money.ofMinor(balances.get(id)));
+            return Optional.of(a);
+        });
+        when(accountRepo.applyBalanceDelta(anyString(), anyLong(), any())).thenAnswer(inv -> {
+            String id = inv.getArgument(0);
+            long delta = inv.getArgument(1);
+            long current = balances.get(id);
+            if (current + delta < 0) {
+                return 0;
+            }
+            balances.put(id, current + delta);
+            return 1;
+        });
+
+        TransactionLogRepository logRepo = mock(TransactionLogRepository.class);
+        when(logRepo.saveAll(any())).thenAnswer(inv -> {
+            Iterable<TransactionLog> logs = inv.getArgument(0);
+            for (TransactionLog t : logs) {
+                if (t.getIdempotencyKey().equals(rejectedKey)) {
+                    throw new DataIntegrityViolationException("duplicate idempotency_key");
+                }
+                t.setId(TimeOrderedIds.next());
+            }
+            return List.of();
+        });
+
+        IdempotencyService idempotencyService = mock(IdempotencyService.class);
+        when(idempotencyService.lookup(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(remembered.get(inv.<String>getArgument(0))));
+        doAnswer(inv -> {
+            remembered.putAll(inv.getArgument(0));
+            return null;
+        }).when(idempotencyService).rememberAll(any());
+        doAnswer(inv -> {
+            remembered.put(inv.getArgument(0), inv.getArgument(1));
+            return null;
+        }).when(idempotencyService).rememberPending(anyString(), any());
+
+        PlatformTransactionManager tm = mock(PlatformTransactionManager.class);
+        when(tm.getTransaction(any())).thenAnswer(inv -> {
+            writeStarted.countDown();
+            writeGate.await();
+            if (databaseDown) {
+                throw new CannotCreateTransactionException("database is down");
+            }
+            return new SimpleTransactionStatus();
+        });
+
+        engine = new LedgerEngine(accountRepo, logRepo, mock(OutboxEventRepository.class),
+                mock(ActivitySummaryService.class), mock(FailureLogService.class), idempotencyService,
+                mock(BalanceCache.class), tm, 2, 500, 1000, 2000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeGate.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    void crossPartitionCreditRejectionReleasesTheHold() {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        balances.put("C", 0L);
+        statuses.put("B", "FROZEN");
+
+        TransferResponseDTO rejected = engine.transfer(request("A", "B", "60.00", "k1"));
+        assertThat(rejected.getStatus()).isEqualTo("FAILED");
+        assertThat(rejected.getMessage()).isEqualTo("Account is not ACTIVE");
+
+        // the full balance is available again: the 60.00 hold was released
+        assertThat(engine.transfer(request("A", "C", "100.00", "k2")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(balances).containsEntry("A", 0L).containsEntry("B", 0L).containsEntry("C", 10_000L);
+    }
+
+    @Test
+    void failedDestinationLoadReleasesTheHold() {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        balances.put("C", 0L);
+        failingAccountLoads.add("B");
+
+        TransferResponseDTO failed = engine.transfer(request("A", "B", "60.00", "k1"));
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getMessage()).isEqualTo("connection pool timeout");
+
+        // nothing was credited, so the 60.00 held on A is available again
+        failingAccountLoads.clear();
+        assertThat(engine.transfer(request("A", "C", "100.00", "k2")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(balances).containsEntry("A", 0L).containsEntry("B", 0L).containsEntry("C", 10_000L);
+    }
+
+    @Test
+    void crossPartitionTransferMovesMoneyOnce() {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+
+        assertThat(engine.transfer(request("A", "B", "25.00", "k1")).getStatus()).isEqualTo("SUCCESS");
+        // a retry replays the stored response
+        assertThat(engine.transfer(request("A", "B", "25.00", "k1")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(balances).containsEntry("A", 7_500L).containsEntry("B", 2_500L);
+    }
+
+    @Test
+    void missingAmountIsRejectedBeforeAnythingIsLogged() {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        TransferRequestDTO noAmount = request("A", "B", "1.00", "k1");
+        noAmount.setAmount(null);
+
+        TransferResponseDTO rejected = engine.transfer(noAmount);
+        assertThat(rejected.getStatus()).isEqualTo("FAILED");
+        assertThat(rejected.getMessage()).isEqualTo("Debit amount must be positive");
+        assertThat(balances).containsEntry("A", 10_000L).containsEntry("B", 0L);
+    }
+
+    @Test
+    void missingIdempotencyKeyIsRejected() {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+
+        TransferResponseDTO rejected = engine.transfer(request("A", "B", "1.00", null));
+        assertThat(rejected.getStatus()).isEqualTo("FAILED");
+        assertThat(rejected.getMessage()).isEqualTo("Idempotency key is required");
+        assertThat(balances).containsEntry("A", 10_000L).containsEntry("B", 0L);
+    }
+
+    @Test
+    void retryOfARejectedTransferReplaysTheRejection() {
+        balances.put("A", 500L);
+        balances.put("B", 0L);
+
+        TransferResponseDTO rejected = engine.transfer(request("A", "B", "10.00", "k1"));
+        assertThat(rejected.getMessage()).isEqualTo("Insufficient balance");
+
+        // funded before the failure log is written (here: never): the retry still gets the first answer
+        balances.put("A", 10_000L);
+        engine.evict("A").join();
+        TransferResponseDTO retry = engine.transfer(request("A", "B", "10.00", "k1"));
+        assertThat(retry.getStatus()).isEqualTo("FAILED");
+        assertThat(retry.getTransactionId()).isEqualTo(rejected.getTransactionId());
+        assertThat(balances).containsEntry("A", 10_000L).containsEntry("B", 0L);
+    }
+
+    @Test
+    void routeTimeoutIsPendingAndKeepsTheKeyClaimed() throws Exception {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        CountDownLatch loadGate = new CountDownLatch(1);
+        accountLoadGates.put("A", loadGate);
+
+        TransferResponseDTO first = engine.transfer(request("A", "B", "10.00", "k1"));
+        assertThat(first.getStatus()).isEqualTo("PENDING");
+
+        // the original is still queued: a retry must not apply it a second time
+        TransferResponseDTO retry = engine.transfer(request("A", "B", "10.00", "k1"));
+        assertThat(retry.getMessage()).isEqualTo("Transfer with this idempotency key is in progress");
+
+        loadGate.countDown();
+        awaitTrue(() -> remembered.containsKey("k1"));
+        awaitTrue(() -> !"Transfer with this idempotency key is in progress".equals(
+                engine.transfer(request("A", "B", "10.00", "k1")).getMessage()));
+
+        assertThat(engine.transfer(request("A", "B", "10.00", "k1")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(balances).containsEntry("A", 9_000L).containsEntry("B", 1_000L);
+    }
+
+    @Test
+    void failingEntryInABatchIsTheOnlyOneUndone() throws Exception {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        rejectedKey = "bad";
+        writeGate = new CountDownLatch(1);
+
+        // the first entry holds the writer, so the next three are written as one batch
+        CompletableFuture<TransferResponseDTO> g1 = async(request("A", "B", "10.00", "g1"));
+        assertThat(writeStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<TransferResponseDTO> g2 = async(request("A", "B", "10.00", "g2"));
+        CompletableFuture<TransferResponseDTO> bad = async(request("A", "B", "10.00", "bad"));
+        CompletableFuture<TransferResponseDTO> g3 = async(request("A", "B", "10.00", "g3"));
+        awaitTrue(() -> engine.writeBehindDepth() == 3);
+        writeGate.countDown();
+
+        assertThat(g1.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+        assertThat(g2.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+        assertThat(g3.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+        assertThat(bad.get(5, TimeUnit.SECONDS).getMessage()).isEqualTo("Transfer could not be persisted");
+        assertThat(balances).containsEntry("A", 7_000L).containsEntry("B", 3_000L);
+
+        // memory matches the database again: exactly 70.00 left to send
+        assertThat(engine.transfer(request("A", "B", "70.01", "over")).getMessage()).isEqualTo("Insufficient balance");
+        assertThat(engine.transfer(request("A", "B", "70.00", "rest")).getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void spendingAnUndoneCreditIsUndoneTooAndNoBalanceGoesNegative() throws Exception {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        balances.put("C", 0L);
+        rejectedKey = "credit";
+        writeGate = new CountDownLatch(1);
+
+        CompletableFuture<TransferResponseDTO> first = async(request("A", "C", "1.00", "first"));
+        assertThat(writeStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        // B receives 10.00 in memory and spends it before either write is attempted
+        CompletableFuture<TransferResponseDTO> credit = async(request("A", "B", "10.00", "credit"));
+        awaitTrue(() -> engine.writeBehindDepth() == 1);
+        CompletableFuture<TransferResponseDTO> spend = async(request("B", "C", "10.00", "spend"));
+        awaitTrue(() -> engine.writeBehindDepth() == 2);
+        writeGate.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+        assertThat(credit.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+        assertThat(spend.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+        assertThat(balances).containsEntry("A", 9_900L).containsEntry("B", 0L).containsEntry("C", 100L);
+
+        assertThat(engine.transfer(request("B", "C", "0.01", "again")).getMessage()).isEqualTo("Insufficient balance");
+        assertThat(engine.transfer(request("A", "C", "99.00", "rest")).getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void databaseOutageStallsTheLedgerInsteadOfUndoingTransfers() throws Exception {
+        balances.put("A", 10_000L);
+        balances.put("B", 0L);
+        databaseDown = true;
+
+        TransferResponseDTO accepted = engine.transfer(request("A", "B", "10.00", "k1"));
+        assertThat(accepted.getStatus()).isEqualTo("PENDING");
+        assertThat(engine.transfer(request("A", "B", "10.00", "k2")).getMessage())
+                .isEqualTo("Ledger is unavailable, please retry");
+
+        databaseDown = false;
+        awaitTrue(() -> remembered.containsKey("k1"));
+        assertThat(balances).containsEntry("A", 9_000L).containsEntry("B", 1_000L);
+        awaitTrue(() -> "SUCCESS".equals(engine.transfer(request("A", "B", "10.00", "k3")).getStatus()));
+        assertThat(balances).containsEntry("A", 8_000L);
+    }
+
+    private CompletableFuture<TransferResponseDTO> async(TransferRequestDTO request) {
+        return CompletableFuture.supplyAsync(() -> engine.transfer(request));
+    }
+
+    private static TransferRequestDTO request(String from, String to, String amount, String key) {
+        TransferRequestDTO r = new TransferRequestDTO();
+        r.setFromAccountId(from);
+        r.setToAccountId(to);
+        r.setAmount(Money.parse(amount));
+        r.setIdempotencyKey(key);
+        return r;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.bd.repository.IdSequenceRepository;
+
+class AccountIdGeneratorTest {
+
+    @Test
+    void luhnCheckDigit() {
+        assertThat(AccountIdGenerator.luhn("7992739871")).isEqualTo(3);
+        assertThat(AccountIdGenerator.luhn("0")).isZero();
+        assertThat(AccountIdGenerator.luhn("202600000001")).isEqualTo(1);
+    }
+
+    @Test
+    void formatPadsTheSequenceAndAppendsAValidCheckDigit() {
+        assertThat(AccountIdGenerator.format(2026, 1)).isEqualTo("MTS2026-000000011");
+        assertThat(AccountIdGenerator.format(2026, 2)).isEqualTo("MTS2026-000000029");
+        assertThat(AccountIdGenerator.format(2025, 99_999_999)).hasSize(17).startsWith("MTS2025-99999999");
+
+        for (long seq : new long[] {1, 42, 12_345_678, 99_999_999}) {
+            String id = AccountIdGenerator.format(2026, seq);
+            assertThat(isLuhnValid(id.substring(3, 7) + id.substring(8))).as(id).isTrue();
+        }
+    }
+
+    @Test
+    void idsAreConsecutiveAcrossBlocks() {
+        // the counter row: advance() bumps it by a block, currentValue() reads it back
+        AtomicLong counter = new AtomicLong(1);
+        IdSequenceRepository sequences = mock(IdSequenceRepository.class);
+        when(sequences.advance(eq(AccountIdGenerator.SEQUENCE), anyLong())).thenAnswer(inv -> {
+            counter.addAndGet(inv.<Long>getArgument(1));
+            return 1;
+        });
+        when(sequences.currentValue(AccountIdGenerator.SEQUENCE)).thenAnswer(inv -> counter.get());
+        PlatformTransactionManager tm = mock(PlatformTransactionManager.class);
+        when(tm.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        AccountIdGenerator generator = new AccountIdGenerator(sequences, tm, 3);
+        try {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ids.add(generator.nextId());
+            }
+            int year = Year.now().getValue();
+            for (int i = 0; i < 10; i++) {
+                assertThat(ids.get(i)).isEqualTo(AccountIdGenerator.format(year, i + 1));
+            }
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    private static boolean isLuhnValid(String digits) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int d = digits.charAt(digits.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                d = d * 2 > 9 ? d * 2 - 9 : d * 2;
+            }
+            sum += d;
+        }
+        return sum % 10 == 0;
+    }
+}
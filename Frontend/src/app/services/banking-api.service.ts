@@ -27,11 +27,10 @@ export class BankingApiService {
     @Inject('API_BASE_URL') private baseUrl: string // e.g. http://localhost:8080/api/v1
   ) {}
 
-  /** GET /accounts/{id} -> Account-like JSON with balance */
+  /** GET /accounts/{id}/balance -> balance as a JSON number (served from the backend balance cache) */
   getBalance(accountId: string) {
-    return this.http.get<any>(`${this.baseUrl}/accounts/${encodeURIComponent(accountId)}`).pipe(
-      map(acc => {
-        const val = acc?.balance;
+    return this.http.get<any>(`${this.baseUrl}/accounts/${encodeURIComponent(accountId)}/balance`).pipe(
+      map(val => {
         const num = typeof val === 'string' ? Number(val) : val; // handle "123.45" strings too
         return Number.isFinite(num) ? num : null;
       }),